@@ -0,0 +1,120 @@
+package com.remitly.exercise.benchmarks;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeEntity;
+import com.remitly.exercise.swiftCode.features.SwiftCodeIndex;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic synthetic SWIFT directory: every 8-character bank prefix has one headquarter followed by
+ * {@link #BRANCHES_PER_BANK} branches, spread over {@link #COUNTRIES}.
+ */
+public final class BenchmarkData {
+
+    public static final int BRANCHES_PER_BANK = 9;
+
+    public static final String[] COUNTRIES = {"PL", "DE", "US", "GB", "FR", "ES", "IT", "NL", "SE", "JP"};
+
+    private BenchmarkData() {
+    }
+
+    public static String swiftCode(int row) {
+        final int bank = row / (BRANCHES_PER_BANK + 1);
+        final int branch = row % (BRANCHES_PER_BANK + 1);
+        return bankPrefix(bank) + (branch == 0 ? "XXX" : String.format("%03d", branch));
+    }
+
+    /** Four letters naming the bank, its country and a fixed location code: 26^4 distinct banks. */
+    private static String bankPrefix(int bank) {
+        final char[] name = new char[4];
+        for (int i = 3, rest = bank; i >= 0; i--, rest /= 26) {
+            name[i] = (char) ('A' + rest % 26);
+        }
+        return new String(name) + COUNTRIES[bank % COUNTRIES.length] + "22";
+    }
+
+    public static String country(int row) {
+        return COUNTRIES[(row / (BRANCHES_PER_BANK + 1)) % COUNTRIES.length];
+    }
+
+    /** Raw cells in the spreadsheet column layout ExcelParserService expects. */
+    public static String[] cells(int row) {
+        return new String[]{
+                country(row).toLowerCase(),
+                swiftCode(row),
+                "BIC11",
+                "  Bank number " + row / (BRANCHES_PER_BANK + 1) + "  ",
+                "Street " + row,
+                "Town " + row % 97,
+                "country " + country(row),
+                "Europe/Warsaw"
+        };
+    }
+
+    public static List<SwiftCodeIndex.Row> indexRows(int rows) {
+        final List<SwiftCodeIndex.Row> result = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            final String code = swiftCode(row);
+            final boolean headquarter = code.endsWith("XXX");
+            result.add(new SwiftCodeIndex.Row(code, "Bank " + code.substring(0, 8), "Street " + row,
+                    country(row), "COUNTRY " + country(row), headquarter,
+                    headquarter ? null : code.substring(0, 8) + "XXX"));
+        }
+        return result;
+    }
+
+    public static SwiftCodeEntity entity(int row) {
+        final String code = swiftCode(row);
+        return SwiftCodeEntity.builder()
+                .swiftCode(code)
+                .bankName("Bank " + code.substring(0, 8))
+                .address("Street " + row)
+                .countryISO2(country(row))
+                .countryName("COUNTRY " + country(row))
+                .isHeadquarter(code.endsWith("XXX"))
+                .build();
+    }
+
+    /** Writes a workbook with a header row and {@code rows} data rows using POI's streaming writer. */
+    public static Path writeWorkbook(int rows) throws IOException {
+        return writeWorkbook(rows, 1);
+    }
+
+    /**
+     * Spreads {@code rows} generated rows evenly over {@code sheets} sheets, each with its own header row. Closing
+     * the streaming workbook also deletes the temporary files it flushed rows to.
+     */
+    public static Path writeWorkbook(int rows, int sheets) throws IOException {
+        final Path file = Files.createTempFile("swift-codes-" + rows + "-", ".xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(1000);
+             OutputStream out = Files.newOutputStream(file)) {
+            final String[] header = {"COUNTRY ISO2 CODE", "SWIFT CODE", "CODE TYPE", "NAME", "ADDRESS", "TOWN NAME",
+                    "COUNTRY NAME", "TIME ZONE"};
+            final int perSheet = (rows + sheets - 1) / sheets;
+            for (int s = 0; s < sheets; s++) {
+                final Sheet sheet = workbook.createSheet("SWIFT " + (s + 1));
+                writeRow(sheet.createRow(0), header);
+                final int to = Math.min(rows, (s + 1) * perSheet);
+                for (int row = s * perSheet; row < to; row++) {
+                    writeRow(sheet.createRow(row - s * perSheet + 1), cells(row));
+                }
+            }
+            workbook.write(out);
+        }
+        return file;
+    }
+
+    private static void writeRow(Row row, String[] values) {
+        for (int column = 0; column < values.length; column++) {
+            row.createCell(column).setCellValue(values[column]);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.remitly.exercise.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodesByCountryDTO;
+import com.remitly.exercise.swiftCode.features.SwiftCodeMapper;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a country listing, the last step of GET /v1/swift-codes/country/{countryISO2code}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CountryJsonBenchmark {
+
+    @Param({"100", "10000"})
+    public int codes;
+
+    private ObjectWriter writer;
+
+    private SwiftCodesByCountryDTO response;
+
+    @Setup
+    public void setUp() {
+        writer = new ObjectMapper().writerFor(SwiftCodesByCountryDTO.class);
+        final List<SwiftCodeDTO> dtos = new ArrayList<>(codes);
+        for (int row = 0; row < codes; row++) {
+            final String code = BenchmarkData.swiftCode(row);
+            dtos.add(SwiftCodeMapper.toBasicDTO(new SwiftCodeSummary(code, "Bank " + code.substring(0, 8),
+                    "Street " + row, "PL", "POLAND", code.endsWith("XXX"))));
+        }
+        response = SwiftCodesByCountryDTO.builder()
+                .countryISO2("PL")
+                .countryName("POLAND")
+                .swiftCodes(dtos)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,59 @@
+package com.remitly.exercise.benchmarks;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodeEntity;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import com.remitly.exercise.swiftCode.features.SwiftCodeMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DtoMappingBenchmark {
+
+    @Param({"0", "10", "100"})
+    public int branches;
+
+    private SwiftCodeEntity headquarter;
+
+    private SwiftCodeSummary summary;
+
+    @Setup
+    public void setUp() {
+        headquarter = BenchmarkData.entity(0);
+        for (int i = 1; i <= branches; i++) {
+            final SwiftCodeEntity branch = BenchmarkData.entity(0);
+            branch.setSwiftCode(headquarter.getSwiftCode().substring(0, 8) + String.format("%03d", i));
+            branch.setIsHeadquarter(false);
+            branch.setHeadquarter(headquarter);
+            headquarter.getBranches().add(branch);
+        }
+        summary = new SwiftCodeSummary(headquarter.getSwiftCode(), headquarter.getBankName(), headquarter.getAddress(),
+                headquarter.getCountryISO2(), headquarter.getCountryName(), headquarter.getIsHeadquarter());
+    }
+
+    @Benchmark
+    public SwiftCodeDTO toDetailedDTO() {
+        return SwiftCodeMapper.toDetailedDTO(headquarter);
+    }
+
+    @Benchmark
+    public SwiftCodeDTO toBasicDTO() {
+        return SwiftCodeMapper.toBasicDTO(summary);
+    }
+}
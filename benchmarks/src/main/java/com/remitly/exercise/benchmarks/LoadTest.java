@@ -0,0 +1,141 @@
+package com.remitly.exercise.benchmarks;
+
+import com.remitly.exercise.swiftCode.features.SwiftCodeSnapshot;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load test against a running instance: {@code concurrency} clients, each on its own virtual
+ * thread, request {@code GET /v1/swift-codes/{code}} back to back for {@code seconds} and report throughput and
+ * latency percentiles. The codes come from the instance's own snapshot export.
+ * <p>
+ * Used to compare the request execution modes, e.g. start the application twice with the lookup cache off so
+ * every request reaches PostgreSQL:
+ * <pre>
+ * java -Dswift.cache.lookup.maximum-size=0 -jar exercise/target/exercise-0.0.1-exec.jar
+ * java -Dswift.cache.lookup.maximum-size=0 -Dspring.threads.virtual.enabled=true -jar exercise/target/exercise-0.0.1-exec.jar
+ * java -cp benchmarks/target/benchmarks.jar com.remitly.exercise.benchmarks.LoadTest http://localhost:8080 1000 30
+ * </pre>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        final int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        final int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        final int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        final HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        final String[] codes = fetchCodes(client, baseUrl);
+        System.out.printf("%d codes, %d clients, %d s warm-up, %d s measured against %s%n",
+                codes.length, concurrency, warmupSeconds, seconds, baseUrl);
+
+        run(client, baseUrl, codes, concurrency, warmupSeconds);
+        final Result result = run(client, baseUrl, codes, concurrency, seconds);
+        System.out.println(result.format(seconds));
+    }
+
+    private static String[] fetchCodes(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        final Path file = Files.createTempFile("swift-codes", ".swft");
+        try {
+            final HttpResponse<Path> response = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/v1/swift-codes/export?format=swft")).build(),
+                    HttpResponse.BodyHandlers.ofFile(file));
+            if (response.statusCode() != 200) {
+                throw new IOException("Export failed with HTTP " + response.statusCode());
+            }
+            final List<String> codes = new ArrayList<>();
+            SwiftCodeSnapshot.open(file).forEach(row -> codes.add(row.swiftCode()));
+            if (codes.isEmpty()) {
+                throw new IOException("The instance has no SWIFT codes to request");
+            }
+            return codes.toArray(String[]::new);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Result run(HttpClient client, String baseUrl, String[] codes, int concurrency, int seconds)
+            throws InterruptedException {
+        final long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        final LongAdder errors = new LongAdder();
+        final long[][] latencies = new long[concurrency][];
+        final List<Thread> clients = new ArrayList<>(concurrency);
+        for (int c = 0; c < concurrency; c++) {
+            final int slot = c;
+            clients.add(Thread.ofVirtual().name("load-" + c).start(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    final String code = codes[random.nextInt(codes.length)];
+                    final HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/v1/swift-codes/" + code))
+                            .timeout(Duration.ofSeconds(30))
+                            .build();
+                    final long start = System.nanoTime();
+                    try {
+                        final HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.increment();
+                        }
+                    } catch (IOException e) {
+                        errors.increment();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, count * 2);
+                    }
+                    samples[count++] = System.nanoTime() - start;
+                }
+                latencies[slot] = Arrays.copyOf(samples, count);
+            }));
+        }
+        for (final Thread thread : clients) {
+            thread.join();
+        }
+        final long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors.sum());
+    }
+
+    private record Result(long[] sortedLatencies, long errors) {
+
+        String format(int seconds) {
+            final int requests = sortedLatencies.length;
+            return String.format(Locale.ROOT,
+                    "requests=%d errors=%d throughput=%.1f req/s p50=%.2f ms p90=%.2f ms p99=%.2f ms "
+                            + "p99.9=%.2f ms max=%.2f ms",
+                    requests, errors, requests / (double) seconds,
+                    percentile(0.50), percentile(0.90), percentile(0.99), percentile(0.999),
+                    requests == 0 ? 0 : sortedLatencies[requests - 1] / 1e6);
+        }
+
+        private double percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            final int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
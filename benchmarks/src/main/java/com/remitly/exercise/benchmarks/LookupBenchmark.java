@@ -0,0 +1,95 @@
+package com.remitly.exercise.benchmarks;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodeEntity;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import com.remitly.exercise.swiftCode.features.SwiftCodeIndex;
+import com.remitly.exercise.swiftCode.features.SwiftCodeMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-path lookups without a database: the in-memory {@link SwiftCodeIndex} against a map of JPA-shaped
+ * entities standing in for {@code repository.findById} + {@code toDetailedDTO}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LookupBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    private SwiftCodeIndex index;
+
+    private Map<String, SwiftCodeEntity> entities;
+
+    private String[] hits;
+
+    private String[] misses;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        final SwiftCodeIndex.Builder builder = SwiftCodeIndex.builder();
+        BenchmarkData.indexRows(rows).forEach(builder::add);
+        index = builder.build();
+
+        entities = new HashMap<>(rows * 2);
+        for (int row = 0; row < rows; row++) {
+            final SwiftCodeEntity entity = BenchmarkData.entity(row);
+            entities.put(entity.getSwiftCode(), entity);
+            if (!entity.getIsHeadquarter()) {
+                final SwiftCodeEntity headquarter = entities.get(entity.getSwiftCode().substring(0, 8) + "XXX");
+                entity.setHeadquarter(headquarter);
+                headquarter.getBranches().add(entity);
+            }
+        }
+
+        hits = new String[1024];
+        misses = new String[1024];
+        for (int i = 0; i < hits.length; i++) {
+            hits[i] = BenchmarkData.swiftCode((int) ((long) i * 7919 % rows));
+            misses[i] = "MISS" + hits[i].substring(4);
+        }
+    }
+
+    @Benchmark
+    public Optional<SwiftCodeDTO> indexHit() {
+        return index.findDetailed(hits[next++ & (hits.length - 1)]);
+    }
+
+    @Benchmark
+    public Optional<SwiftCodeDTO> indexMiss() {
+        return index.findDetailed(misses[next++ & (misses.length - 1)]);
+    }
+
+    @Benchmark
+    public Optional<SwiftCodeDTO> entityMapHit() {
+        return Optional.ofNullable(entities.get(hits[next++ & (hits.length - 1)])).map(SwiftCodeMapper::toDetailedDTO);
+    }
+
+    @Benchmark
+    public List<SwiftCodeSummary> indexCountryPage() {
+        return index.findPageByCountry("PL", hits[next++ & (hits.length - 1)], 100);
+    }
+}
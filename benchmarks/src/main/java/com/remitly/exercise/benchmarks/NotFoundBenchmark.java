@@ -0,0 +1,107 @@
+package com.remitly.exercise.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.remitly.exercise.exceptions.ErrorDTO;
+import com.remitly.exercise.exceptions.ResourceNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * The not-found path of a lookup: {@code depth} frames down, as deep as the DispatcherServlet sits under Tomcat and
+ * the filter chain, an exception is thrown from {@value #HANDLER_FRAMES} frames further down (handler adapter,
+ * proxy, controller), caught and turned into a serialized {@link ErrorDTO}. Once with the stackless
+ * {@link ResourceNotFoundException} and once with an exception that fills in its stack trace as it did before;
+ * only the latter pays for the frames above the catch.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NotFoundBenchmark {
+
+    private static final int HANDLER_FRAMES = 10;
+
+    @Param({"30", "150"})
+    public int depth;
+
+    private ObjectWriter writer;
+
+    private String[] misses;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        writer = new ObjectMapper().findAndRegisterModules().writerFor(ErrorDTO.class);
+        misses = new String[1024];
+        for (int i = 0; i < misses.length; i++) {
+            misses[i] = BenchmarkData.swiftCode(i).substring(0, 8) + "ZZZ";
+        }
+    }
+
+    @Benchmark
+    public String withStackTrace() throws JsonProcessingException {
+        return notFound(StackTraceNotFoundException::new);
+    }
+
+    @Benchmark
+    public String stackless() throws JsonProcessingException {
+        return notFound(ResourceNotFoundException::new);
+    }
+
+    private String notFound(final Function<String, RuntimeException> exception) throws JsonProcessingException {
+        return dispatchFrom(depth, misses[next++ & (misses.length - 1)], exception);
+    }
+
+    private String dispatchFrom(final int frames, final String swiftCode,
+                                final Function<String, RuntimeException> exception) throws JsonProcessingException {
+        if (frames > 0) {
+            return dispatchFrom(frames - 1, swiftCode, exception);
+        }
+        try {
+            throwFrom(HANDLER_FRAMES, swiftCode, exception);
+            throw new IllegalStateException();
+        } catch (RuntimeException ex) {
+            return writer.writeValueAsString(ErrorDTO.builder()
+                    .timestamp(LocalDateTime.now())
+                    .status(404)
+                    .error("Not Found")
+                    .message(ex.getMessage())
+                    .path("uri=/v1/swift-codes/" + swiftCode)
+                    .build());
+        }
+    }
+
+    private static int throwFrom(final int frames, final String swiftCode,
+                                 final Function<String, RuntimeException> exception) {
+        if (frames == 0) {
+            throw exception.apply("SWIFT code " + swiftCode + " not found.");
+        }
+        return throwFrom(frames - 1, swiftCode, exception) + 1;
+    }
+
+    /** {@link ResourceNotFoundException} as it was before it dropped its stack trace. */
+    private static final class StackTraceNotFoundException extends RuntimeException {
+
+        private StackTraceNotFoundException(final String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.remitly.exercise.benchmarks;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import com.remitly.exercise.swiftCode.features.SwiftCodeSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type-ahead queries against {@link SwiftCodeSearchIndex}: a SWIFT code prefix, an exact bank-name word plus a
+ * town prefix, and a bank-name word with one typo.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private SwiftCodeSearchIndex index;
+
+    private String[] codePrefixes;
+
+    private String[] words;
+
+    private String[] typos;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        final List<SwiftCodeSummary> summaries = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            final String code = BenchmarkData.swiftCode(row);
+            summaries.add(new SwiftCodeSummary(code, "Bank " + code.substring(0, 8),
+                    "Street " + row + ", Town " + row % 97, BenchmarkData.country(row),
+                    "COUNTRY " + BenchmarkData.country(row), code.endsWith("XXX")));
+        }
+        index = SwiftCodeSearchIndex.build(summaries);
+
+        codePrefixes = new String[1024];
+        words = new String[1024];
+        typos = new String[1024];
+        for (int i = 0; i < codePrefixes.length; i++) {
+            final String code = BenchmarkData.swiftCode((int) ((long) i * 7919 % rows));
+            final String word = code.substring(0, 8).toLowerCase();
+            codePrefixes[i] = code.substring(0, 6);
+            words[i] = word + " town " + i % 9;
+            typos[i] = word.charAt(1) + word.substring(0, 1) + word.substring(2);
+        }
+    }
+
+    @Benchmark
+    public List<SwiftCodeSummary> codePrefix() {
+        return index.search(codePrefixes[next++ & (codePrefixes.length - 1)], 20, 2);
+    }
+
+    @Benchmark
+    public List<SwiftCodeSummary> wordAndTownPrefix() {
+        return index.search(words[next++ & (words.length - 1)], 20, 2);
+    }
+
+    @Benchmark
+    public List<SwiftCodeSummary> fuzzyWord() {
+        return index.search(typos[next++ & (typos.length - 1)], 20, 2);
+    }
+}
@@ -0,0 +1,114 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.benchmarks.BenchmarkData;
+import com.remitly.exercise.swiftCode.core.SwiftCodeBulkWriter;
+import com.remitly.exercise.swiftCode.core.SwiftCodeEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full XLSX ingestion through {@link ExcelParserService} with the database writer replaced by a counter,
+ * so the score is parse + row conversion only. Lives in the service's package to reach {@code parseRow}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ExcelParserBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"1", "4"})
+    public int sheets;
+
+    @Param({"1", "4"})
+    public int workers;
+
+    private Path workbook;
+
+    private CountingBulkWriter writer;
+
+    private ExcelParserService service;
+
+    private String[][] sampleRows;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workbook = BenchmarkData.writeWorkbook(rows, sheets);
+        writer = new CountingBulkWriter();
+        service = new ExcelParserService(writer, null, List.of(), event -> { }, new SimpleMeterRegistry(), 1000,
+                ExcelParserService.ImportMode.FULL, false, workers, true);
+        sampleRows = new String[1024][];
+        for (int i = 0; i < sampleRows.length; i++) {
+            sampleRows[i] = BenchmarkData.cells(i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(workbook);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long parseWorkbook() {
+        writer.rows = 0;
+        service.parseAndSaveExcelFile(workbook);
+        return writer.rows;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public SwiftCodeEntity parseRow() {
+        return ExcelParserService.parseRow(sampleRows[next++ & (sampleRows.length - 1)]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String getCellValueAsString() {
+        return ExcelParserService.getCellValueAsString(sampleRows[next++ & (sampleRows.length - 1)], 3);
+    }
+
+    static final class CountingBulkWriter extends SwiftCodeBulkWriter {
+
+        long rows;
+
+        CountingBulkWriter() {
+            super(null);
+        }
+
+        @Override
+        public void upsertAll(List<SwiftCodeEntity> entities) {
+            rows += entities.size();
+        }
+
+        @Override
+        public int linkHeadquarters() {
+            return 0;
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.remitly.exercise;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaRepositories(basePackages = "com.remitly.exercise.swiftCode")
+@EnableScheduling
 public class ExerciseApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,184 @@
+package com.remitly.exercise.swiftCode.core;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many threads may hold a database connection at once by wrapping the {@link DataSource} in a fair
+ * {@link Semaphore} with as many permits as the pool has connections.
+ * <p>
+ * With virtual threads every request gets its own thread, so thousands of them can be blocked in JDBC at the
+ * same time. HikariCP would park them all in its own hand-off queue and time them out only after
+ * {@code connection-timeout}. The semaphore queues them in arrival order before they reach the pool, keeping
+ * tail latency predictable, and gives up after {@code swift.db.limiter.acquire-timeout} with a
+ * {@link SQLTransientConnectionException}, which the API answers with 503.
+ * <p>
+ * A permit belongs to the thread, not the connection: a thread that already holds a connection gets further ones
+ * (e.g. for a {@code REQUIRES_NEW} transaction) without queueing again, and returns the permit when it has closed
+ * them all. Otherwise it could wait for a permit that only it can give back.
+ * <p>
+ * Enabled by default together with {@code spring.threads.virtual.enabled}. Its meters are bound by
+ * {@link DatabaseConcurrencyLimiterMetrics}, as a post-processor is created before the meter registry.
+ */
+@Component
+public class DatabaseConcurrencyLimiter implements BeanPostProcessor {
+
+    private final boolean enabled;
+
+    private final Semaphore permits;
+
+    private final int permitCount;
+
+    private final long acquireTimeoutNanos;
+
+    // connections each thread holds through the limiter; the first one took the permit
+    private final ThreadLocal<AtomicInteger> held = ThreadLocal.withInitial(AtomicInteger::new);
+
+    private final LongAdder waits = new LongAdder();
+
+    private final LongAdder waitNanos = new LongAdder();
+
+    public DatabaseConcurrencyLimiter(
+            @Value("${swift.db.limiter.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+            @Value("${swift.db.limiter.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${swift.db.limiter.acquire-timeout:5s}") Duration acquireTimeout) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("swift.db.limiter.permits must be positive");
+        }
+        this.enabled = enabled;
+        this.permits = new Semaphore(permits, true);
+        this.permitCount = permits;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource dataSource && !(bean instanceof LimitedDataSource)) {
+            return new LimitedDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int waitingThreads() {
+        return permits.getQueueLength();
+    }
+
+    public int permits() {
+        return permitCount;
+    }
+
+    /** How many times a thread queued for a permit. */
+    public long waits() {
+        return waits.sum();
+    }
+
+    /** Total time threads spent queueing for a permit. */
+    public long waitNanos() {
+        return waitNanos.sum();
+    }
+
+    private Connection acquire(ConnectionSource source) throws SQLException {
+        final AtomicInteger connections = held.get();
+        if (connections.get() > 0) {
+            connections.incrementAndGet();
+            return connectionHolding(connections, source);
+        }
+        final long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("No database permit available within "
+                        + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + " ms ("
+                        + permits.getQueueLength() + " threads waiting).");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit.", e);
+        } finally {
+            waits.increment();
+            waitNanos.add(System.nanoTime() - start);
+        }
+        connections.incrementAndGet();
+        return connectionHolding(connections, source);
+    }
+
+    private Connection connectionHolding(AtomicInteger connections, ConnectionSource source) throws SQLException {
+        try {
+            return releasingOnClose(source.get(), connections);
+        } catch (SQLException | RuntimeException e) {
+            release(connections);
+            throw e;
+        }
+    }
+
+    private void release(AtomicInteger connections) {
+        if (connections.decrementAndGet() == 0) {
+            permits.release();
+        }
+    }
+
+    /**
+     * Counts the connection as closed when it is handed back to the pool, only once, and returns the permit with
+     * the thread's last one.
+     */
+    private Connection releasingOnClose(Connection connection, AtomicInteger connections) {
+        final AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                            release(connections);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * The wrapped pool; {@link DelegatingDataSource} keeps {@code unwrap} working, so pool metrics and health
+     * still find the HikariCP data source behind it.
+     */
+    private final class LimitedDataSource extends DelegatingDataSource {
+
+        LimitedDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return acquire(() -> obtainTargetDataSource().getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return acquire(() -> obtainTargetDataSource().getConnection(username, password));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+
+        Connection get() throws SQLException;
+    }
+}
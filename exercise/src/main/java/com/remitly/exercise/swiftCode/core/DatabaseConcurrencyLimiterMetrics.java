@@ -0,0 +1,39 @@
+package com.remitly.exercise.swiftCode.core;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the state of the {@link DatabaseConcurrencyLimiter}; the limiter counts its waits itself, so none are
+ * lost before the registry binds these meters.
+ */
+@Component
+public class DatabaseConcurrencyLimiterMetrics implements MeterBinder {
+
+    private final DatabaseConcurrencyLimiter limiter;
+
+    public DatabaseConcurrencyLimiterMetrics(DatabaseConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("swift.db.limiter.available", limiter, DatabaseConcurrencyLimiter::availablePermits)
+                .description("Database permits not currently held")
+                .register(registry);
+        Gauge.builder("swift.db.limiter.waiting", limiter, DatabaseConcurrencyLimiter::waitingThreads)
+                .description("Threads waiting for a database permit")
+                .register(registry);
+        Gauge.builder("swift.db.limiter.permits", limiter, DatabaseConcurrencyLimiter::permits)
+                .register(registry);
+        FunctionTimer.builder("swift.db.limiter.wait", limiter, DatabaseConcurrencyLimiter::waits,
+                        DatabaseConcurrencyLimiter::waitNanos, TimeUnit.NANOSECONDS)
+                .description("Time spent waiting for a database permit")
+                .register(registry);
+    }
+}
@@ -0,0 +1,14 @@
+package com.remitly.exercise.swiftCode.core;
+
+import lombok.Builder;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@Builder
+public class SwiftCodeBatchResponse {
+    /** One result per submitted item, in request order. */
+    private List<SwiftCodeBatchResult> results;
+    private int succeeded;
+    private int failed;
+}
@@ -0,0 +1,21 @@
+package com.remitly.exercise.swiftCode.core;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+import java.util.List;
+
+/**
+ * Outcome of one item of a batch request. {@code status} is the HTTP status the single-item endpoint would
+ * have answered with, e.g. 201 for a created code, 400 for an invalid or existing one, 404 for a missing one.
+ */
+@Data
+@Builder
+public class SwiftCodeBatchResult {
+    private String swiftCode;
+    private int status;
+    private String message;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> validationErrors;
+}
@@ -0,0 +1,309 @@
+package com.remitly.exercise.swiftCode.core;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Writes SWIFT codes with plain JDBC batches instead of {@link SwiftCodeRepository#saveAll}, which
+ * would issue a SELECT per row to decide between persist and merge for the assigned String id.
+ */
+@Repository
+public class SwiftCodeBulkWriter {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO swift_codes (swift_code, bank_name, address, countryiso2, country_name, is_headquarter)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (swift_code) DO UPDATE SET
+                bank_name = EXCLUDED.bank_name,
+                address = EXCLUDED.address,
+                countryiso2 = EXCLUDED.countryiso2,
+                country_name = EXCLUDED.country_name,
+                is_headquarter = EXCLUDED.is_headquarter
+            """;
+
+    private static final String LINK_HEADQUARTERS_SQL = """
+            UPDATE swift_codes b
+            SET headquarter_swift_code = h.swift_code
+            FROM swift_codes h
+            WHERE b.is_headquarter = false
+              AND length(b.swift_code) >= 8
+              AND h.swift_code = substring(b.swift_code from 1 for 8) || 'XXX'
+              AND b.headquarter_swift_code IS DISTINCT FROM h.swift_code
+            """;
+
+    private static final String INSERT_MISSING_SQL = """
+            INSERT INTO swift_codes (swift_code, bank_name, address, countryiso2, country_name, is_headquarter)
+            SELECT * FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::boolean[])
+            ON CONFLICT (swift_code) DO NOTHING
+            RETURNING swift_code
+            """;
+
+    private static final String LINK_PREFIXES_SQL = """
+            UPDATE swift_codes b
+            SET headquarter_swift_code = h.swift_code
+            FROM swift_codes h
+            WHERE b.is_headquarter = false
+              AND length(b.swift_code) >= 8
+              AND substring(b.swift_code from 1 for 8) = ANY (?)
+              AND h.swift_code = substring(b.swift_code from 1 for 8) || 'XXX'
+              AND b.headquarter_swift_code IS DISTINCT FROM h.swift_code
+            RETURNING b.swift_code
+            """;
+
+    private static final String DELETE_WITH_BRANCHES_SQL = """
+            DELETE FROM swift_codes
+            WHERE swift_code = ANY (?) OR headquarter_swift_code = ANY (?)
+            RETURNING swift_code, countryiso2
+            """;
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMPORARY TABLE swift_codes_staging (
+                swift_code     VARCHAR(255) NOT NULL PRIMARY KEY,
+                bank_name      VARCHAR(255),
+                address        VARCHAR(255),
+                countryiso2    VARCHAR(255),
+                country_name   VARCHAR(255),
+                is_headquarter BOOLEAN
+            ) ON COMMIT DROP
+            """;
+
+    private static final String STAGE_SQL = """
+            INSERT INTO swift_codes_staging (swift_code, bank_name, address, countryiso2, country_name, is_headquarter)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (swift_code) DO UPDATE SET
+                bank_name = EXCLUDED.bank_name,
+                address = EXCLUDED.address,
+                countryiso2 = EXCLUDED.countryiso2,
+                country_name = EXCLUDED.country_name,
+                is_headquarter = EXCLUDED.is_headquarter
+            """;
+
+    private static final String INSERT_NEW_SQL = """
+            INSERT INTO swift_codes (swift_code, bank_name, address, countryiso2, country_name, is_headquarter)
+            SELECT s.swift_code, s.bank_name, s.address, s.countryiso2, s.country_name, s.is_headquarter
+            FROM swift_codes_staging s
+            WHERE NOT EXISTS (SELECT 1 FROM swift_codes t WHERE t.swift_code = s.swift_code)
+            """;
+
+    private static final String UPDATE_CHANGED_SQL = """
+            UPDATE swift_codes t
+            SET bank_name = s.bank_name,
+                address = s.address,
+                countryiso2 = s.countryiso2,
+                country_name = s.country_name,
+                is_headquarter = s.is_headquarter
+            FROM swift_codes_staging s
+            WHERE t.swift_code = s.swift_code
+              AND (t.bank_name, t.address, t.countryiso2, t.country_name, t.is_headquarter)
+                  IS DISTINCT FROM (s.bank_name, s.address, s.countryiso2, s.country_name, s.is_headquarter)
+            """;
+
+    private static final String UNLINK_MISSING_SQL = """
+            UPDATE swift_codes t
+            SET headquarter_swift_code = NULL
+            WHERE t.headquarter_swift_code IS NOT NULL
+              AND NOT EXISTS (SELECT 1 FROM swift_codes_staging s WHERE s.swift_code = t.headquarter_swift_code)
+            """;
+
+    private static final String DELETE_MISSING_SQL = """
+            DELETE FROM swift_codes t
+            WHERE NOT EXISTS (SELECT 1 FROM swift_codes_staging s WHERE s.swift_code = t.swift_code)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public SwiftCodeBulkWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Upserts the given rows as a single JDBC batch; a later row for the same code wins. Pending JPA changes
+     * are flushed first so the batch sees them, and the persistence context is cleared afterwards so no managed
+     * entity goes stale.
+     */
+    public void upsertAll(List<SwiftCodeEntity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        final List<SwiftCodeEntity> rows = lastByCode(entities);
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), SwiftCodeBulkWriter::bindUpsert);
+        entityManager.clear();
+    }
+
+    /**
+     * Inserts the rows whose code does not exist yet in one statement, binding every column as an array, and
+     * leaves existing codes untouched. The existence check and the insert are the same statement, so a code
+     * created concurrently is reported as existing instead of failing the whole batch.
+     *
+     * @return the codes that were inserted
+     */
+    public Set<String> insertMissing(List<SwiftCodeEntity> entities) {
+        if (entities.isEmpty()) {
+            return Set.of();
+        }
+        entityManager.flush();
+        final List<String> inserted = jdbcTemplate.query(INSERT_MISSING_SQL, ps -> {
+            final Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("varchar", column(entities, SwiftCodeEntity::getSwiftCode)));
+            ps.setArray(2, connection.createArrayOf("varchar", column(entities, SwiftCodeEntity::getBankName)));
+            ps.setArray(3, connection.createArrayOf("varchar", column(entities, SwiftCodeEntity::getAddress)));
+            ps.setArray(4, connection.createArrayOf("varchar", column(entities, SwiftCodeEntity::getCountryISO2)));
+            ps.setArray(5, connection.createArrayOf("varchar", column(entities, SwiftCodeEntity::getCountryName)));
+            ps.setArray(6, connection.createArrayOf("bool", entities.stream()
+                    .map(entity -> Boolean.TRUE.equals(entity.getIsHeadquarter()))
+                    .toArray()));
+        }, (rs, rowNum) -> rs.getString(1));
+        entityManager.clear();
+        return new HashSet<>(inserted);
+    }
+
+    /**
+     * {@link #linkHeadquarters()} restricted to the given 8-character prefixes, so only the families touched by
+     * a batch are scanned and updated.
+     *
+     * @return the branches whose headquarter changed
+     */
+    public Set<String> linkHeadquarters(Collection<String> prefixes) {
+        if (prefixes.isEmpty()) {
+            return Set.of();
+        }
+        entityManager.flush();
+        final List<String> linked = jdbcTemplate.query(LINK_PREFIXES_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", prefixes.toArray())),
+                (rs, rowNum) -> rs.getString(1));
+        entityManager.clear();
+        return new HashSet<>(linked);
+    }
+
+    /**
+     * Deletes the given codes and the branches of every deleted headquarter in one statement, the same
+     * cascade the {@code branches} association applies to a single delete.
+     *
+     * @return every deleted code, including cascaded branches, with its country
+     */
+    public Map<String, String> deleteWithBranches(Collection<String> swiftCodes) {
+        if (swiftCodes.isEmpty()) {
+            return Map.of();
+        }
+        entityManager.flush();
+        final Map<String, String> deleted = new HashMap<>();
+        jdbcTemplate.query(DELETE_WITH_BRANCHES_SQL, ps -> {
+            final Array codes = ps.getConnection().createArrayOf("varchar", swiftCodes.toArray());
+            ps.setArray(1, codes);
+            ps.setArray(2, codes);
+        }, rs -> {
+            deleted.put(rs.getString(1), rs.getString(2));
+        });
+        entityManager.clear();
+        return deleted;
+    }
+
+    /**
+     * Creates the transaction-scoped {@code swift_codes_staging} table that {@link #stageAll} fills and
+     * {@link #applyStaged} merges; must run inside the import transaction.
+     */
+    public void beginStaging() {
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+    }
+
+    /**
+     * Adds the given rows to the staging table as a single JDBC batch; a later row for the same code wins.
+     */
+    public void stageAll(List<SwiftCodeEntity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        final List<SwiftCodeEntity> rows = lastByCode(entities);
+        jdbcTemplate.batchUpdate(STAGE_SQL, rows, rows.size(), SwiftCodeBulkWriter::bindUpsert);
+    }
+
+    /**
+     * Merges the staging table into {@code swift_codes} with set-based statements that only touch rows that
+     * differ: new codes are inserted, codes whose fields changed are updated and, if {@code deleteMissing},
+     * codes absent from the staging table are deleted (branches pointing at them are unlinked first).
+     * Unchanged rows are not rewritten, so they produce no dead tuples or WAL.
+     */
+    public DeltaCounts applyStaged(boolean deleteMissing) {
+        entityManager.flush();
+        // temporary tables are never auto-analyzed; without statistics the anti-joins below are planned blind
+        jdbcTemplate.execute("ANALYZE swift_codes_staging");
+        final int inserted = jdbcTemplate.update(INSERT_NEW_SQL);
+        final int updated = jdbcTemplate.update(UPDATE_CHANGED_SQL);
+        int deleted = 0;
+        if (deleteMissing) {
+            jdbcTemplate.update(UNLINK_MISSING_SQL);
+            deleted = jdbcTemplate.update(DELETE_MISSING_SQL);
+        }
+        entityManager.clear();
+        return new DeltaCounts(inserted, updated, deleted);
+    }
+
+    /**
+     * Points every branch at the headquarter sharing its 8-character prefix in one UPDATE ... FROM
+     * statement. Rows that are already linked correctly are left untouched.
+     *
+     * @return the number of branches whose headquarter changed
+     */
+    public int linkHeadquarters() {
+        entityManager.flush();
+        final int linked = jdbcTemplate.update(LINK_HEADQUARTERS_SQL);
+        entityManager.clear();
+        return linked;
+    }
+
+    /**
+     * Rows written by {@link #applyStaged}.
+     */
+    public record DeltaCounts(int inserted, int updated, int deleted) {
+
+        public boolean isEmpty() {
+            return inserted == 0 && updated == 0 && deleted == 0;
+        }
+    }
+
+    /**
+     * Keeps the last row of every code. With {@code reWriteBatchedInserts} the driver folds a batch into
+     * multi-row INSERTs, and PostgreSQL rejects an {@code ON CONFLICT DO UPDATE} statement that reaches the same
+     * row twice, so a code repeated within one batch would fail the whole import.
+     */
+    private static List<SwiftCodeEntity> lastByCode(List<SwiftCodeEntity> entities) {
+        final Map<String, SwiftCodeEntity> byCode = new LinkedHashMap<>();
+        for (final SwiftCodeEntity entity : entities) {
+            byCode.put(entity.getSwiftCode(), entity);
+        }
+        return byCode.size() == entities.size() ? entities : new ArrayList<>(byCode.values());
+    }
+
+    private static Object[] column(List<SwiftCodeEntity> entities, Function<SwiftCodeEntity, String> getter) {
+        return entities.stream().map(getter).toArray();
+    }
+
+    private static void bindUpsert(PreparedStatement ps, SwiftCodeEntity entity) throws SQLException {
+        ps.setString(1, entity.getSwiftCode());
+        ps.setString(2, entity.getBankName());
+        ps.setString(3, entity.getAddress());
+        ps.setString(4, entity.getCountryISO2());
+        ps.setString(5, entity.getCountryName());
+        ps.setBoolean(6, Boolean.TRUE.equals(entity.getIsHeadquarter()));
+    }
+}
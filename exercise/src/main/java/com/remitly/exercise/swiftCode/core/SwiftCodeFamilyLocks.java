@@ -0,0 +1,57 @@
+package com.remitly.exercise.swiftCode.core;
+
+import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Serializes writers per bank, i.e. per 8-character SWIFT code prefix, with transaction-scoped PostgreSQL advisory
+ * locks. Creating a headquarter links the branches it can see, and creating a branch links the headquarter it can
+ * see; two such transactions running side by side each miss the other's uncommitted row and leave the branch
+ * unlinked. Holding the family's lock until commit makes the second writer start after the first has committed,
+ * so it sees its rows. Writers on different banks take different locks; they only meet on the dataset version
+ * row, which each one updates right before it commits.
+ */
+@Repository
+public class SwiftCodeFamilyLocks {
+
+    // one statement for the whole set; unnest hands the sorted prefixes to the lock calls in order
+    private static final String LOCK_SQL = """
+            SELECT count(pg_advisory_xact_lock(hashtextextended('swift_codes:' || prefix, 0)))
+            FROM unnest(?::varchar[]) AS prefix
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SwiftCodeFamilyLocks(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Blocks until the current transaction holds the lock of every bank among {@code swiftCodes}; they are
+     * released on commit or rollback. Locks are taken in prefix order, so batches over overlapping banks cannot
+     * deadlock.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void lock(Collection<String> swiftCodes) {
+        final TreeSet<String> prefixes = new TreeSet<>();
+        for (final String swiftCode : swiftCodes) {
+            if (swiftCode != null) {
+                prefixes.add(prefix(swiftCode));
+            }
+        }
+        if (prefixes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(LOCK_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", prefixes.toArray())),
+                rs -> null);
+    }
+
+    private static String prefix(String swiftCode) {
+        return swiftCode.length() > 8 ? swiftCode.substring(0, 8) : swiftCode;
+    }
+}
@@ -0,0 +1,32 @@
+package com.remitly.exercise.swiftCode.core;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * The last successful import of a source file, identified by the SHA-256 of its content.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "swift_code_imports")
+public class SwiftCodeImportEntity {
+
+    @Id
+    private String source;
+
+    private String contentHash;
+
+    private Integer rowCount;
+
+    private Instant importedAt;
+}
@@ -0,0 +1,6 @@
+package com.remitly.exercise.swiftCode.core;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SwiftCodeImportRepository extends JpaRepository<SwiftCodeImportEntity, String> {
+}
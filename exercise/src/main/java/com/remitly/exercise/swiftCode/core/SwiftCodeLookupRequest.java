@@ -0,0 +1,21 @@
+package com.remitly.exercise.swiftCode.core;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SwiftCodeLookupRequest {
+
+
+    @NotEmpty(message = "SWIFT codes cannot be empty.")
+    private List<@NotBlank(message = "SWIFT code cannot be blank.") String> swiftCodes;
+
+    /** Return headquarters with their branches, as {@code GET /v1/swift-codes/{swiftCode}} does. */
+    private boolean includeBranches;
+}
@@ -0,0 +1,14 @@
+package com.remitly.exercise.swiftCode.core;
+
+import lombok.Builder;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@Builder
+public class SwiftCodeLookupResponse {
+    /** One result per requested code, in request order (duplicates included). */
+    private List<SwiftCodeLookupResult> results;
+    private int found;
+    private int notFound;
+}
@@ -0,0 +1,18 @@
+package com.remitly.exercise.swiftCode.core;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of one requested code in a batch lookup; {@code details} is only present when it was found.
+ */
+@Data
+@Builder
+public class SwiftCodeLookupResult {
+    private String swiftCode;
+    private boolean found;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private SwiftCodeDTO details;
+}
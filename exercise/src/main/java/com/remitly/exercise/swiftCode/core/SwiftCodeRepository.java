@@ -1,12 +1,69 @@
 package com.remitly.exercise.swiftCode.core;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface SwiftCodeRepository extends JpaRepository<SwiftCodeEntity, String> {
 
-    List<SwiftCodeEntity> findByCountryISO2(String countryISO2);
+    /**
+     * Loads a code together with its branches in a single LEFT JOIN query, so building the detailed view
+     * never triggers lazy loading.
+     */
+    @EntityGraph(attributePaths = "branches")
+    Optional<SwiftCodeEntity> findWithBranchesBySwiftCode(String swiftCode);
+
+    /**
+     * Batch form of {@link #findWithBranchesBySwiftCode(String)}: one query for all codes and their branches.
+     */
+    @EntityGraph(attributePaths = "branches")
+    List<SwiftCodeEntity> findWithBranchesBySwiftCodeIn(Collection<String> swiftCodes);
+
+    List<SwiftCodeSummary> findBySwiftCodeIn(Collection<String> swiftCodes);
+
+    List<SwiftCodeSummary> findByCountryISO2(String countryISO2);
+
+    boolean existsByCountryISO2(String countryISO2);
+
+    /**
+     * Keyset page of a country's codes: the next {@code limit} codes ordered after {@code after}.
+     */
+    List<SwiftCodeSummary> findByCountryISO2AndSwiftCodeGreaterThanOrderBySwiftCodeAsc(String countryISO2, String after, Limit limit);
+
+    /**
+     * Server-side cursor over a country's codes; must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new com.remitly.exercise.swiftCode.core.SwiftCodeSummary(
+                s.swiftCode, s.bankName, s.address, s.countryISO2, s.countryName, s.isHeadquarter)
+            from SwiftCodeEntity s
+            where s.countryISO2 = :countryISO2
+            order by s.swiftCode
+            """)
+    Stream<SwiftCodeSummary> streamByCountryISO2(String countryISO2);
+
+    /**
+     * Server-side cursor over every code; must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new com.remitly.exercise.swiftCode.core.SwiftCodeSummary(
+                s.swiftCode, s.bankName, s.address, s.countryISO2, s.countryName, s.isHeadquarter)
+            from SwiftCodeEntity s
+            order by s.swiftCode
+            """)
+    Stream<SwiftCodeSummary> streamAll();
 
     List<SwiftCodeEntity> findBySwiftCodeStartingWith(String prefix);
 }
@@ -0,0 +1,13 @@
+package com.remitly.exercise.swiftCode.core;
+
+import lombok.Builder;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@Builder
+public class SwiftCodeSearchResponse {
+    private String query;
+    /** Matching codes in the basic view, best match first. */
+    private List<SwiftCodeDTO> results;
+}
@@ -0,0 +1,14 @@
+package com.remitly.exercise.swiftCode.core;
+
+/**
+ * Column projection of {@link SwiftCodeEntity} for list endpoints: only the fields they return, without
+ * the headquarter/branches associations or a managed entity behind it.
+ */
+public record SwiftCodeSummary(
+        String swiftCode,
+        String bankName,
+        String address,
+        String countryISO2,
+        String countryName,
+        Boolean isHeadquarter) {
+}
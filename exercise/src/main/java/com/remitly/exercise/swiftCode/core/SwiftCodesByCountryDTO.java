@@ -1,5 +1,6 @@
 package com.remitly.exercise.swiftCode.core;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 import java.util.List;
@@ -10,4 +11,8 @@ public class SwiftCodesByCountryDTO {
     private String countryISO2;
     private String countryName;
     private List<SwiftCodeDTO> swiftCodes;
+
+    /** Cursor for the next page; only present on paginated responses that have more rows. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextAfter;
 }
@@ -0,0 +1,38 @@
+package com.remitly.exercise.swiftCode.core;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Published after SWIFT codes are written. {@code swiftCodes} lists every code whose detailed view may
+ * have changed (the code itself, its headquarter and its branches) and {@code countries} every country
+ * whose listing gained or lost a code; {@code fullReload} means any code may have changed, e.g. after an
+ * import. {@code remote} marks a change committed by another instance and relayed over PostgreSQL
+ * {@code LISTEN/NOTIFY}; it is applied to local state but never relayed again. Remote changes carry the
+ * dataset {@code version} they committed as; local ones leave it 0, as it is only known once they commit.
+ */
+public record SwiftCodesChangedEvent(Set<String> swiftCodes, Set<String> countries, boolean fullReload,
+                                     boolean remote, long version) {
+
+    public static SwiftCodesChangedEvent of(Collection<String> swiftCodes, Collection<String> countries) {
+        return new SwiftCodesChangedEvent(Set.copyOf(swiftCodes), withoutNulls(countries), false, false, 0);
+    }
+
+    public static SwiftCodesChangedEvent reloaded() {
+        return new SwiftCodesChangedEvent(Set.of(), Set.of(), true, false, 0);
+    }
+
+    public static SwiftCodesChangedEvent remote(Collection<String> swiftCodes, Collection<String> countries,
+                                                boolean fullReload, long version) {
+        return new SwiftCodesChangedEvent(Set.copyOf(swiftCodes), withoutNulls(countries), fullReload, true,
+                version);
+    }
+
+    private static Set<String> withoutNulls(Collection<String> countries) {
+        final Set<String> nonNullCountries = new HashSet<>(countries);
+        nonNullCountries.removeIf(Objects::isNull);
+        return Set.copyOf(nonNullCountries);
+    }
+}
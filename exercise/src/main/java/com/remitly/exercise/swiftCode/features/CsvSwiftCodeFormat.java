@@ -0,0 +1,262 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeEntity;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * RFC 4180 CSV in the column layout of the source spreadsheet (country ISO2, SWIFT code, code type, name,
+ * address, town, country name, time zone), so a sheet saved as CSV imports exactly like the workbook. The
+ * first record is the header and is skipped.
+ * <p>
+ * Reading decodes straight from a {@link FileChannel} into a reused char buffer and splits records with a
+ * single-pass state machine, without building lines or going through a general-purpose CSV library.
+ */
+@Component
+public class CsvSwiftCodeFormat implements SwiftCodeImporter, SwiftCodeExporter {
+
+    private static final String[] HEADER = {"COUNTRY ISO2 CODE", "SWIFT CODE", "CODE TYPE", "NAME", "ADDRESS",
+            "TOWN NAME", "COUNTRY NAME", "TIME ZONE"};
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public String format() {
+        return "csv";
+    }
+
+    @Override
+    public String contentType() {
+        return "text/csv";
+    }
+
+    @Override
+    public void read(Path file, Consumer<SwiftCodeEntity> rows) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final RecordReader reader = new RecordReader(channel);
+            final String[] cells = new String[HEADER.length];
+            boolean isFirstRecord = true;
+            while (reader.next(cells)) {
+                if (isFirstRecord) {
+                    isFirstRecord = false;
+                    continue;
+                }
+                final SwiftCodeEntity entity = ExcelParserService.parseRow(cells);
+                if (entity != null) {
+                    rows.accept(entity);
+                }
+            }
+        }
+    }
+
+    /**
+     * The town is already part of the stored address, so it is written as part of ADDRESS and TOWN NAME stays
+     * empty; reading the file back therefore yields the same rows.
+     */
+    @Override
+    public RowWriter open(OutputStream out) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writeRecord(writer, HEADER);
+        final String[] cells = new String[HEADER.length];
+        return new RowWriter() {
+
+            @Override
+            public void write(SwiftCodeSummary row) throws IOException {
+                cells[0] = row.countryISO2();
+                cells[1] = row.swiftCode();
+                cells[2] = "BIC11";
+                cells[3] = row.bankName();
+                cells[4] = row.address();
+                cells[5] = null;
+                cells[6] = row.countryName();
+                cells[7] = null;
+                writeRecord(writer, cells);
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    private static void writeRecord(Writer writer, String[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            final String cell = cells[i];
+            if (cell == null) {
+                continue;
+            }
+            if (needsQuoting(cell)) {
+                writer.write('"');
+                writer.write(cell.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(cell);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static boolean needsQuoting(String cell) {
+        for (int i = 0; i < cell.length(); i++) {
+            final char c = cell.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits a channel into CSV records. Unquoted empty fields are returned as {@code null}, like empty cells in
+     * a workbook; columns beyond the array length are ignored. A leading UTF-8 byte order mark is skipped.
+     */
+    static final class RecordReader {
+
+        private final ReadableByteChannel channel;
+
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+
+        private final StringBuilder field = new StringBuilder();
+
+        private boolean endOfInput;
+
+        private boolean flushed;
+
+        private boolean isStart = true;
+
+        RecordReader(ReadableByteChannel channel) {
+            this.channel = channel;
+            chars.flip();
+        }
+
+        /**
+         * Reads the next record into {@code cells}; returns {@code false} at the end of the input. Blank lines
+         * are returned as records of {@code null} cells.
+         */
+        boolean next(String[] cells) throws IOException {
+            Arrays.fill(cells, null);
+            int c = read();
+            if (c < 0) {
+                return false;
+            }
+            if (isStart) {
+                isStart = false;
+                if (c == '\uFEFF') {
+                    c = read();
+                    if (c < 0) {
+                        return false;
+                    }
+                }
+            }
+
+            int column = 0;
+            boolean quoted = false;
+            boolean inQuotes = false;
+            field.setLength(0);
+            while (true) {
+                if (inQuotes) {
+                    if (c < 0) {
+                        throw new IOException("Unterminated quoted CSV field");
+                    }
+                    if (c == '"') {
+                        final int nextChar = read();
+                        if (nextChar == '"') {
+                            field.append('"');
+                        } else {
+                            inQuotes = false;
+                            c = nextChar;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == ',' || c == '\n' || c == '\r' || c < 0) {
+                    if (column < cells.length) {
+                        cells[column] = quoted || field.length() > 0 ? field.toString() : null;
+                    }
+                    column++;
+                    field.setLength(0);
+                    quoted = false;
+                    if (c != ',') {
+                        if (c == '\r') {
+                            final int nextChar = read();
+                            if (nextChar != '\n' && nextChar >= 0) {
+                                unread();
+                            }
+                        }
+                        return true;
+                    }
+                } else if (c == '"' && field.length() == 0 && !quoted) {
+                    quoted = true;
+                    inQuotes = true;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (!chars.hasRemaining() && !fill()) {
+                return -1;
+            }
+            return chars.get();
+        }
+
+        /** Steps back over the character just read; only valid directly after a successful {@link #read()}. */
+        private void unread() {
+            chars.position(chars.position() - 1);
+        }
+
+        private boolean fill() throws IOException {
+            if (flushed) {
+                return false;
+            }
+            chars.clear();
+            while (true) {
+                if (!endOfInput && channel.read(bytes) < 0) {
+                    endOfInput = true;
+                }
+                bytes.flip();
+                decoder.decode(bytes, chars, endOfInput);
+                bytes.compact();
+                if (endOfInput) {
+                    decoder.flush(chars);
+                    flushed = true;
+                }
+                if (chars.position() > 0 || endOfInput) {
+                    break;
+                }
+            }
+            chars.flip();
+            return chars.hasRemaining();
+        }
+    }
+}
@@ -1,27 +1,109 @@
 package com.remitly.exercise.swiftCode.features;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Loads the SWIFT directory on startup: the bundled workbook, or the file named by {@code swift.import.file} in
+ * any format {@link ExcelParserService#importFile} supports (for example a snapshot exported by another
+ * instance). By default the load runs on a background thread so the
+ * application starts serving liveness probes immediately (a virtual thread when
+ * {@code spring.threads.virtual.enabled} is set); {@link SwiftDataHealthIndicator} keeps the
+ * readiness group down until the data is queryable.
+ */
 @Component
 public class DataLoader implements CommandLineRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(DataLoader.class);
+
+    static final String SOURCE = "Interns_2025_SWIFT_CODES.xlsx";
+
+    public enum State {
+        LOADING, READY, FAILED
+    }
+
     private final ExcelParserService excelParserService;
 
-    public DataLoader(ExcelParserService excelParserService) {
+    private final boolean async;
+
+    private final String importFile;
+
+    private final boolean virtualThreads;
+
+    private volatile State state = State.LOADING;
+
+    private volatile ExcelParserService.ImportResult lastResult;
+
+    private volatile String lastError;
+
+    public DataLoader(ExcelParserService excelParserService,
+                      @Value("${swift.import.async:true}") boolean async,
+                      @Value("${swift.import.file:}") String importFile,
+                      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         this.excelParserService = excelParserService;
+        this.async = async;
+        this.importFile = importFile;
+        this.virtualThreads = virtualThreads;
     }
 
     @Override
-    public void run(String... args) throws Exception {
-        InputStream inputStream = getClass().getResourceAsStream("/Interns_2025_SWIFT_CODES.xlsx");
-        if (inputStream == null) {
-            System.out.println("Excel file not found in resources. Skipping data load.");
-            return;
+    public void run(String... args) {
+        if (async) {
+            final Thread.Builder builder = virtualThreads
+                    ? Thread.ofVirtual()
+                    : Thread.ofPlatform().daemon(true);
+            builder.name("swift-data-loader").start(this::load);
+        } else {
+            load();
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public ExcelParserService.ImportResult getLastResult() {
+        return lastResult;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * A failed import rolls back completely, so if an earlier import exists its data is still served and the
+     * loader reports {@link State#READY} with the error attached.
+     */
+    void load() {
+        final long started = System.nanoTime();
+        final String source = importFile.isBlank() ? SOURCE : Path.of(importFile).getFileName().toString();
+        try (InputStream inputStream = importFile.isBlank()
+                ? getClass().getResourceAsStream("/" + SOURCE)
+                : Files.newInputStream(Path.of(importFile))) {
+            if (inputStream == null) {
+                logger.warn("Excel file not found in resources. Skipping data load.");
+                state = State.READY;
+                return;
+            }
+            lastResult = excelParserService.importIfChanged(source, inputStream);
+            if (!lastResult.skipped()) {
+                logger.info("SWIFT codes have been loaded successfully ({} rows in {} ms).",
+                        lastResult.rows(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            }
+            lastError = null;
+            state = State.READY;
+        } catch (Exception e) {
+            logger.error("Failed to load SWIFT codes.", e);
+            lastError = e.getMessage();
+            state = excelParserService.hasImported(source) ? State.READY : State.FAILED;
         }
-        excelParserService.parseAndSaveExcelFile(inputStream);
-        System.out.println("SWIFT codes have been loaded successfully.");
     }
-}
\ No newline at end of file
+}
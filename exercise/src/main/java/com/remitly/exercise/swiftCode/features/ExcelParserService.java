@@ -1,81 +1,427 @@
 package com.remitly.exercise.swiftCode.features;
 
+import com.remitly.exercise.swiftCode.core.SwiftCodeBulkWriter;
 import com.remitly.exercise.swiftCode.core.SwiftCodeEntity;
-import com.remitly.exercise.swiftCode.core.SwiftCodeRepository;
+import com.remitly.exercise.swiftCode.core.SwiftCodeImportEntity;
+import com.remitly.exercise.swiftCode.core.SwiftCodeImportRepository;
+import com.remitly.exercise.swiftCode.core.SwiftCodesChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.transaction.Transactional;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
-public class ExcelParserService {
+public class ExcelParserService implements MeterBinder {
 
     private static final Logger logger = LoggerFactory.getLogger(ExcelParserService.class);
 
-    private final SwiftCodeRepository swiftCodeRepository;
+    private static final int COLUMN_COUNT = 8;
 
-    public ExcelParserService(SwiftCodeRepository swiftCodeRepository) {
-        this.swiftCodeRepository = swiftCodeRepository;
+    private static final String EXCEL_FORMAT = "xlsx";
+
+    // rejected codes logged one by one per import; the rest only count towards the total
+    private static final int LOGGED_REJECTIONS = 10;
+
+    /**
+     * {@code full} upserts every parsed row; {@code delta} stages the rows and only writes the ones that differ.
+     */
+    public enum ImportMode {
+        FULL, DELTA
+    }
+
+    private final SwiftCodeBulkWriter bulkWriter;
+
+    private final SwiftCodeImportRepository importRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, SwiftCodeImporter> importers;
+
+    private final int chunkSize;
+
+    private final ImportMode mode;
+
+    private final boolean deleteMissing;
+
+    private final int workers;
+
+    private final boolean ordered;
+
+    private final Timer parseTimer;
+
+    private final Timer saveTimer;
+
+    private final Timer mergeTimer;
+
+    private final Timer linkTimer;
+
+    private final Counter importedRows;
+
+    private final Counter insertedRows;
+
+    private final Counter updatedRows;
+
+    private final Counter deletedRows;
+
+    private final Counter rejectedRows;
+
+    private volatile double lastRowsPerSecond;
+
+    public ExcelParserService(SwiftCodeBulkWriter bulkWriter,
+                              SwiftCodeImportRepository importRepository,
+                              List<SwiftCodeImporter> importers,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${swift.import.chunk-size:1000}") int chunkSize,
+                              @Value("${swift.import.mode:full}") ImportMode mode,
+                              @Value("${swift.import.delete-missing:false}") boolean deleteMissing,
+                              @Value("${swift.import.workers:1}") int workers,
+                              @Value("${swift.import.ordered:true}") boolean ordered) {
+        this.bulkWriter = bulkWriter;
+        this.importRepository = importRepository;
+        this.eventPublisher = eventPublisher;
+        this.importers = importers.stream()
+                .collect(Collectors.toUnmodifiableMap(SwiftCodeImporter::format, Function.identity()));
+        this.chunkSize = chunkSize;
+        this.mode = mode;
+        this.deleteMissing = deleteMissing;
+        this.workers = workers;
+        this.ordered = ordered;
+        this.parseTimer = phaseTimer(meterRegistry, "parse", "Reading the sheet and converting rows, excluding writes");
+        this.saveTimer = phaseTimer(meterRegistry, "save", "Writing one chunk of rows to the database");
+        this.mergeTimer = phaseTimer(meterRegistry, "merge", "Merging staged rows in delta mode");
+        this.linkTimer = phaseTimer(meterRegistry, "link", "Linking branches to their headquarters");
+        this.importedRows = Counter.builder("swift.import.rows")
+                .description("Rows written (full mode) or staged (delta mode) by the Excel import")
+                .register(meterRegistry);
+        this.insertedRows = changeCounter(meterRegistry, "inserted");
+        this.updatedRows = changeCounter(meterRegistry, "updated");
+        this.deletedRows = changeCounter(meterRegistry, "deleted");
+        this.rejectedRows = Counter.builder("swift.import.rejected")
+                .description("Rows skipped by the import because their SWIFT code cannot be packed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers the gauges that read this service's state; called once by Spring Boot for the application's
+     * registry, after construction.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("swift.import.throughput", this, service -> service.lastRowsPerSecond)
+                .description("Rows per second of the most recent Excel import")
+                .register(registry);
+    }
+
+    private static Timer phaseTimer(MeterRegistry meterRegistry, String phase, String description) {
+        return Timer.builder("swift.import.phase")
+                .description(description)
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter changeCounter(MeterRegistry meterRegistry, String change) {
+        return Counter.builder("swift.import.changes")
+                .description("Rows changed by delta imports")
+                .tag("change", change)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Imports {@code source} unless the SHA-256 of its content matches the last successful import recorded in
+     * {@code swift_code_imports}. The record is written in the same transaction as the rows, so it never
+     * claims an import that was rolled back.
+     */
+    @Transactional
+    public ImportResult importIfChanged(String source, InputStream inputStream) {
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile("swift-codes", "." + formatOf(source));
+            final String contentHash = copyAndHash(inputStream, tempFile);
+
+            final Optional<SwiftCodeImportEntity> previous = importRepository.findById(source);
+            if (previous.isPresent() && contentHash.equals(previous.get().getContentHash())) {
+                logger.info("{} is unchanged since its import at {}. Skipping data load.",
+                        source, previous.get().getImportedAt());
+                return new ImportResult(contentHash, previous.get().getRowCount(), 0, true);
+            }
+
+            final ImportedRows imported = load(tempFile);
+            importRepository.save(SwiftCodeImportEntity.builder()
+                    .source(source)
+                    .contentHash(contentHash)
+                    .rowCount(imported.rows())
+                    .importedAt(Instant.now())
+                    .build());
+            return new ImportResult(contentHash, imported.rows(), imported.rejected(), false);
+        } catch (IOException e) {
+            logger.error("Failed to buffer Excel file", e);
+            throw new RuntimeException("Failed to parse Excel file: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    public boolean hasImported(String source) {
+        return importRepository.existsById(source);
     }
 
+    /**
+     * Spools the stream to a temporary file first: opening an OPC package from a file lets POI read
+     * the zip entries lazily instead of inflating the whole workbook into memory.
+     */
     @Transactional
     public void parseAndSaveExcelFile(InputStream inputStream) {
-        List<SwiftCodeEntity> entities = new ArrayList<>();
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile("swift-codes", ".xlsx");
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            parseAndSaveExcelFile(tempFile);
+        } catch (IOException e) {
+            logger.error("Failed to buffer Excel file", e);
+            throw new RuntimeException("Failed to parse Excel file: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    @Transactional
+    public int parseAndSaveExcelFile(Path file) {
+        return parseAndSaveExcelFiles(List.of(file));
+    }
+
+    /**
+     * Imports one file of any supported format, chosen by its extension: XLSX workbooks are read here, other
+     * formats by the {@link SwiftCodeImporter} of that name. Rows go through the same chunked write, delta merge
+     * and headquarter linking either way.
+     */
+    @Transactional
+    public int importFile(Path file) {
+        return load(file).rows();
+    }
+
+    private ImportedRows load(Path file) {
+        final String format = formatOf(file.getFileName().toString());
+        if (EXCEL_FORMAT.equals(format)) {
+            return readExcelFiles(List.of(file));
+        }
+        final SwiftCodeImporter importer = importers.get(format);
+        if (importer == null) {
+            throw new IllegalArgumentException("Unsupported import format: " + file.getFileName());
+        }
+        return importRows(file.getFileName().toString(), sink -> importer.read(file, sink::accept));
+    }
+
+    public Set<String> supportedFormats() {
+        final Set<String> formats = new TreeSet<>(importers.keySet());
+        formats.add(EXCEL_FORMAT);
+        return formats;
+    }
 
-        try (XSSFWorkbook workbook = new XSSFWorkbook(inputStream)) {
-            XSSFSheet sheet = workbook.getSheetAt(0);
-            boolean isFirstRow = true;
+    /**
+     * Streams every sheet of the given files row by row through POI's SAX event API. Parsed rows are handed
+     * to the bulk writer in chunks of {@code swift.import.chunk-size}; each chunk is one JDBC batch and only
+     * one chunk is held at a time.
+     * <p>
+     * With {@code swift.import.workers} above 1 the sheets are read concurrently and rows are converted on a
+     * worker pool (see {@link ParallelChunkPipeline}); writes stay on the calling thread, inside this
+     * transaction. {@code swift.import.ordered} keeps chunks in file, sheet and row order; as the bulk writer
+     * keeps the last row of a code within a chunk and later chunks overwrite earlier ones, a code repeated in the
+     * input still resolves to its last occurrence. Unordered imports keep one of the occurrences.
+     * <p>
+     * Parsing and saving interleave, so the {@code parse} phase timer records the sheet time minus the time
+     * spent in chunk writes; each chunk write is recorded separately under {@code save}.
+     * <p>
+     * In {@link ImportMode#DELTA delta} mode the chunks go to a staging table instead, which is merged into
+     * {@code swift_codes} afterwards so only new, changed and (with {@code swift.import.delete-missing})
+     * vanished codes are written. No change event is published if nothing changed.
+     */
+    @Transactional
+    public int parseAndSaveExcelFiles(List<Path> files) {
+        return readExcelFiles(files).rows();
+    }
+
+    private ImportedRows readExcelFiles(List<Path> files) {
+        return importRows(files.size() + " Excel file(s)", sink -> {
+            if (workers > 1) {
+                readInParallel(files, sink);
+            } else {
+                readSequentially(files, sink);
+            }
+        });
+    }
+
+    private ImportedRows importRows(String description, RowReader reader) {
+        final long started = System.nanoTime();
+        final ChunkSink sink = new ChunkSink();
+        if (mode == ImportMode.DELTA) {
+            bulkWriter.beginStaging();
+        }
 
-            for (Row row : sheet) {
-                if (isFirstRow) {
-                    isFirstRow = false;
-                    continue;
+        try {
+            reader.read(sink);
+            sink.flush();
+            parseTimer.record(System.nanoTime() - started - sink.saveNanos, TimeUnit.NANOSECONDS);
+            logger.info("Parsed {} rows from {}.", sink.rowCount, description);
+            if (sink.rejected > 0) {
+                logger.warn("Skipped {} rows of {} whose SWIFT code is not 1-11 characters of [0-9A-Z].",
+                        sink.rejected, description);
+            }
+        } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException e) {
+            logger.error("Failed to parse {}", description, e);
+            throw new RuntimeException("Failed to parse " + description + ": " + e.getMessage(), e);
+        }
+
+        SwiftCodeBulkWriter.DeltaCounts changes = null;
+        if (mode == ImportMode.DELTA) {
+            final long mergeStarted = System.nanoTime();
+            changes = bulkWriter.applyStaged(deleteMissing);
+            mergeTimer.record(System.nanoTime() - mergeStarted, TimeUnit.NANOSECONDS);
+            insertedRows.increment(changes.inserted());
+            updatedRows.increment(changes.updated());
+            deletedRows.increment(changes.deleted());
+            logger.info("Delta import of {} rows: {} inserted, {} updated, {} deleted, {} unchanged.",
+                    sink.rowCount, changes.inserted(), changes.updated(), changes.deleted(),
+                    sink.rowCount - changes.inserted() - changes.updated());
+        } else {
+            logger.info("Saved {} SwiftCodeEntities to the database.", sink.rowCount);
+        }
+
+        final long linkStarted = System.nanoTime();
+        final int linked = bulkWriter.linkHeadquarters();
+        linkTimer.record(System.nanoTime() - linkStarted, TimeUnit.NANOSECONDS);
+        logger.info("Linked {} branches to their headquarters.", linked);
+
+        final long elapsedNanos = System.nanoTime() - started;
+        lastRowsPerSecond = sink.rowCount * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsedNanos);
+        logger.info("Imported {} rows in {} ms ({} rows/s).",
+                sink.rowCount, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(lastRowsPerSecond));
+
+        if (changes == null || !changes.isEmpty() || linked > 0) {
+            eventPublisher.publishEvent(SwiftCodesChangedEvent.reloaded());
+        }
+        return new ImportedRows(sink.rowCount, sink.rejected);
+    }
+
+    private void readSequentially(List<Path> files, ChunkSink sink)
+            throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        for (Path file : files) {
+            try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    logger.warn("Excel file {} contains no sheets.", file.getFileName());
                 }
-                SwiftCodeEntity entity = parseRow(row);
-                if (entity != null) {
-                    entities.add(entity);
+                while (sheets.hasNext()) {
+                    try (InputStream sheet = sheets.next()) {
+                        parseSheet(sheet, reader.getStylesTable(), sharedStrings, cells -> {
+                            SwiftCodeEntity entity = parseRow(cells);
+                            if (entity != null) {
+                                sink.accept(entity);
+                            }
+                        });
+                    }
                 }
             }
-            logger.info("Parsed {} rows from the Excel file.", entities.size());
-        } catch (IOException e) {
-            logger.error("Failed to parse Excel file", e);
-            throw new RuntimeException("Failed to parse Excel file: " + e.getMessage(), e);
         }
+    }
 
-        swiftCodeRepository.saveAll(entities);
-        logger.info("Saved {} SwiftCodeEntities to the database.", entities.size());
-
-        for (SwiftCodeEntity entity : entities) {
-            if (!entity.getIsHeadquarter()) {
-                String branchSwiftCode = entity.getSwiftCode();
-                if (branchSwiftCode != null && branchSwiftCode.length() >= 8) {
-                    String headquarterSwiftCode = branchSwiftCode.substring(0, 8) + "XXX";
-                    swiftCodeRepository.findById(headquarterSwiftCode).ifPresent(hq -> {
-                        entity.setHeadquarter(hq);
-                        swiftCodeRepository.save(entity);
-                        logger.debug("Updated branch {} with headquarter {}.", entity.getSwiftCode(), hq.getSwiftCode());
+    /**
+     * Opens every file up front and registers one row source per sheet. Shared strings and styles are loaded
+     * once per file and only read afterwards, so the sheets of a file can share them.
+     */
+    private void readInParallel(List<Path> files, ChunkSink sink) throws IOException, OpenXML4JException, SAXException {
+        final List<OPCPackage> packages = new ArrayList<>();
+        try {
+            final List<ParallelChunkPipeline.RowSource<String[]>> sources = new ArrayList<>();
+            for (Path file : files) {
+                OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+                packages.add(pkg);
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+                StylesTable styles = reader.getStylesTable();
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                while (sheets.hasNext()) {
+                    InputStream sheet = sheets.next();
+                    sources.add(rows -> {
+                        try (sheet) {
+                            parseSheet(sheet, styles, sharedStrings, cells -> rows.accept(cells.clone()));
+                        }
                     });
                 }
             }
+            new ParallelChunkPipeline<>(workers, chunkSize, ordered, ExcelParserService::parseRow)
+                    .run(sources, chunk -> chunk.forEach(sink::accept));
+        } finally {
+            for (OPCPackage pkg : packages) {
+                pkg.revert();
+            }
         }
     }
 
-    private SwiftCodeEntity parseRow(Row row) {
-        String countryISO2 = getCellValueAsString(row.getCell(0));
-        String swiftCode = getCellValueAsString(row.getCell(1));
-        String bankName = getCellValueAsString(row.getCell(3));
-        String address = getCellValueAsString(row.getCell(4));
-        String townName = getCellValueAsString(row.getCell(5));
-        String countryName = getCellValueAsString(row.getCell(6));
+    private void parseSheet(InputStream sheet, StylesTable styles, ReadOnlySharedStringsTable sharedStrings,
+                            Consumer<String[]> rows) throws IOException, SAXException, ParserConfigurationException {
+        XMLReader parser = XMLHelper.newXMLReader();
+        parser.setContentHandler(new XSSFSheetXMLHandler(
+                styles, null, sharedStrings, new RowHandler(rows), new DataFormatter(), false));
+        parser.parse(new InputSource(sheet));
+    }
+
+    static SwiftCodeEntity parseRow(String[] cells) {
+        String countryISO2 = getCellValueAsString(cells, 0);
+        String swiftCode = getCellValueAsString(cells, 1);
+        String bankName = getCellValueAsString(cells, 3);
+        String address = getCellValueAsString(cells, 4);
+        String townName = getCellValueAsString(cells, 5);
+        String countryName = getCellValueAsString(cells, 6);
 
         if (swiftCode == null || swiftCode.trim().isEmpty()) {
             return null;
@@ -98,17 +444,153 @@ public class ExcelParserService {
                 .build();
     }
 
+    static String getCellValueAsString(String[] cells, int column) {
+        String value = cells[column];
+        return value != null ? value.trim() : null;
+    }
 
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return null;
+    private static String formatOf(String fileName) {
+        final int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String copyAndHash(InputStream inputStream, Path target) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        Files.copy(new DigestInputStream(inputStream, digest), target, StandardCopyOption.REPLACE_EXISTING);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete temporary file {}", file, e);
+        }
+    }
+
+    /**
+     * Feeds the rows of one import into the sink on the calling thread.
+     */
+    @FunctionalInterface
+    private interface RowReader {
+
+        void read(ChunkSink sink) throws IOException, OpenXML4JException, SAXException, ParserConfigurationException;
+    }
+
+    /**
+     * Outcome of {@link #importIfChanged}: the content hash, the rows it holds, the rows it skipped as their code
+     * cannot be packed and whether the import was skipped because the content was already imported.
+     */
+    public record ImportResult(String contentHash, int rows, int rejected, boolean skipped) {
+    }
+
+    /**
+     * Rows one import wrote or staged, and rows it skipped.
+     */
+    private record ImportedRows(int rows, int rejected) {
+    }
+
+    /**
+     * Bounded hand-off between the SAX parser and the bulk writer: collects at most one chunk of
+     * parsed rows and writes it before accepting more. Nothing outlives its chunk: branches do not wait for
+     * their headquarter, as they are linked in one statement once every chunk is written, and the bulk writer
+     * clears the persistence context after each chunk. A row whose code {@link SwiftCodeKeys} cannot pack is
+     * skipped and counted, as the in-memory and snapshot stores could not serve it; the rest of the file is still
+     * imported.
+     */
+    private final class ChunkSink {
+
+        private List<SwiftCodeEntity> chunk = new ArrayList<>(chunkSize);
+
+        private int rowCount;
+
+        private int rejected;
+
+        private long saveNanos;
+
+        void accept(SwiftCodeEntity entity) {
+            if (SwiftCodeKeys.pack(entity.getSwiftCode()) == SwiftCodeKeys.INVALID) {
+                if (++rejected <= LOGGED_REJECTIONS) {
+                    logger.warn("Skipping SWIFT code '{}': codes must be 1-11 characters of [0-9A-Z].",
+                            entity.getSwiftCode());
+                }
+                rejectedRows.increment();
+                return;
+            }
+            chunk.add(entity);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            final long started = System.nanoTime();
+            if (mode == ImportMode.DELTA) {
+                bulkWriter.stageAll(chunk);
+            } else {
+                bulkWriter.upsertAll(chunk);
+            }
+            final long elapsed = System.nanoTime() - started;
+            saveTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            saveNanos += elapsed;
+            importedRows.increment(chunk.size());
+            rowCount += chunk.size();
+            logger.debug("Saved chunk of {} rows ({} total).", chunk.size(), rowCount);
+            chunk = new ArrayList<>(chunkSize);
+        }
+    }
+
+    /**
+     * Receives cell events for one row at a time and passes each completed row on; the header row of every
+     * sheet is skipped. The cell array is reused for the next row.
+     */
+    private static final class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<String[]> rows;
+
+        private final String[] cells = new String[COLUMN_COUNT];
+
+        private boolean isFirstRow = true;
+
+        private int nextColumn;
+
+        RowHandler(Consumer<String[]> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(cells, null);
+            nextColumn = 0;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellAddress(cellReference).getColumn() : nextColumn;
+            nextColumn = column + 1;
+            if (column < COLUMN_COUNT) {
+                cells[column] = formattedValue;
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (isFirstRow) {
+                isFirstRow = false;
+                return;
+            }
+            rows.accept(cells);
         }
-        return switch (cell.getCellType()) {
-            case STRING -> cell.getStringCellValue().trim();
-            case NUMERIC -> String.valueOf(cell.getNumericCellValue());
-            case BOOLEAN -> String.valueOf(cell.getBooleanCellValue());
-            case FORMULA -> cell.getCellFormula();
-            default -> "";
-        };
     }
 }
@@ -0,0 +1,158 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import com.remitly.exercise.swiftCode.core.SwiftCodesChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Serves every read from an immutable {@link SwiftCodeIndex} held in memory. The index is loaded from
+ * {@code swift_codes} at startup and after each import; other committed writes re-read only the affected
+ * rows and swap in a copy of the index with those rows replaced.
+ */
+@Component
+@ConditionalOnProperty(name = "swift.store", havingValue = "memory")
+public class InMemorySwiftCodeReadStore implements SwiftCodeReadStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemorySwiftCodeReadStore.class);
+
+    private static final String SELECT_ROWS = """
+            SELECT swift_code, bank_name, address, countryiso2, country_name, is_headquarter, headquarter_swift_code
+            FROM swift_codes
+            """;
+
+    private static final RowMapper<SwiftCodeIndex.Row> ROW_MAPPER = (rs, rowNum) -> new SwiftCodeIndex.Row(
+            rs.getString("swift_code"),
+            rs.getString("bank_name"),
+            rs.getString("address"),
+            rs.getString("countryiso2"),
+            rs.getString("country_name"),
+            rs.getBoolean("is_headquarter"),
+            rs.getString("headquarter_swift_code"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // not a monitor: updates query the database, and a virtual thread blocked inside synchronized pins its carrier
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile SwiftCodeIndex index = SwiftCodeIndex.EMPTY;
+
+    private volatile boolean loaded;
+
+    public InMemorySwiftCodeReadStore(final NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<SwiftCodeDTO> findDetailed(final String swiftCode) {
+        return index.findDetailed(swiftCode);
+    }
+
+    @Override
+    public Map<String, SwiftCodeDTO> findAll(final Collection<String> swiftCodes, final boolean includeBranches) {
+        final SwiftCodeIndex current = index;
+        final Map<String, SwiftCodeDTO> found = new HashMap<>();
+        for (final String swiftCode : swiftCodes) {
+            (includeBranches ? current.findDetailed(swiftCode) : current.findBasic(swiftCode))
+                    .ifPresent(dto -> found.put(swiftCode, dto));
+        }
+        return found;
+    }
+
+    @Override
+    public boolean existsByCountry(final String countryISO2) {
+        return index.containsCountry(countryISO2);
+    }
+
+    @Override
+    public List<SwiftCodeSummary> findByCountry(final String countryISO2) {
+        return index.findByCountry(countryISO2);
+    }
+
+    @Override
+    public List<SwiftCodeSummary> findPageByCountry(final String countryISO2, final String after, final int limit) {
+        return index.findPageByCountry(countryISO2, after, limit);
+    }
+
+    @Override
+    public void forEachByCountry(final String countryISO2, final Consumer<SwiftCodeSummary> action) {
+        index.forEachByCountry(countryISO2, action);
+    }
+
+    @Override
+    public void forEach(final Consumer<SwiftCodeSummary> action) {
+        index.forEach(action);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    // before SwiftCodeSearchService indexes what it serves
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    // before SwiftDatasetVersion moves the ETag on
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSwiftCodesChanged(final SwiftCodesChangedEvent event) {
+        if (event.fullReload()) {
+            reload();
+            return;
+        }
+        if (event.swiftCodes().isEmpty()) {
+            return;
+        }
+        updateLock.lock();
+        try {
+            final List<SwiftCodeIndex.Row> rows = jdbcTemplate.query(
+                    SELECT_ROWS + " WHERE swift_code IN (:codes)", Map.of("codes", event.swiftCodes()), ROW_MAPPER);
+            index = index.withChanges(event.swiftCodes(), rows);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    public void reload() {
+        updateLock.lock();
+        try {
+            final long start = System.nanoTime();
+            final SwiftCodeIndex.Builder builder = SwiftCodeIndex.builder();
+            jdbcTemplate.getJdbcTemplate().query(SELECT_ROWS, rs -> {
+                builder.add(ROW_MAPPER.mapRow(rs, 0));
+            });
+            final int skipped = builder.skipped();
+            if (skipped > 0) {
+                logger.warn("Skipped {} SWIFT codes that are not 1-11 characters of [0-9A-Z].", skipped);
+            }
+            index = builder.build();
+            loaded = true;
+            logger.info("Loaded {} SWIFT codes into the in-memory index in {} ms.",
+                    index.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+}
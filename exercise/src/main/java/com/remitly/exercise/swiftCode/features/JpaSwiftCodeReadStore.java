@@ -0,0 +1,102 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodeEntity;
+import com.remitly.exercise.swiftCode.core.SwiftCodeRepository;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import jakarta.transaction.Transactional;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnProperty(name = "swift.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaSwiftCodeReadStore implements SwiftCodeReadStore {
+
+    private final SwiftCodeRepository repository;
+
+    private final SwiftCodeLookupCache lookupCache;
+
+    private final SwiftCodeExistenceFilter existenceFilter;
+
+    public JpaSwiftCodeReadStore(final SwiftCodeRepository repository, final SwiftCodeLookupCache lookupCache,
+                                 final SwiftCodeExistenceFilter existenceFilter) {
+        this.repository = repository;
+        this.lookupCache = lookupCache;
+        this.existenceFilter = existenceFilter;
+    }
+
+    /**
+     * Codes the {@link SwiftCodeExistenceFilter} rules out are answered as not found without a query.
+     */
+    @Override
+    public Optional<SwiftCodeDTO> findDetailed(final String swiftCode) {
+        if (!existenceFilter.mightExist(swiftCode)) {
+            return Optional.empty();
+        }
+        final Optional<SwiftCodeDTO> found = lookupCache.get(swiftCode, code -> repository
+                .findWithBranchesBySwiftCode(code)
+                .map(SwiftCodeMapper::toDetailedDTO)
+                .orElse(null));
+        if (found.isEmpty()) {
+            existenceFilter.recordFalsePositives(1);
+        }
+        return found;
+    }
+
+    @Override
+    public Map<String, SwiftCodeDTO> findAll(final Collection<String> swiftCodes, final boolean includeBranches) {
+        final List<String> candidates = swiftCodes.stream().filter(existenceFilter::mightExist).toList();
+        if (candidates.isEmpty()) {
+            return Map.of();
+        }
+        final Map<String, SwiftCodeDTO> found = includeBranches
+                ? lookupCache.getAll(candidates, missing -> repository
+                        .findWithBranchesBySwiftCodeIn(missing).stream()
+                        .collect(Collectors.toMap(SwiftCodeEntity::getSwiftCode, SwiftCodeMapper::toDetailedDTO)))
+                : repository.findBySwiftCodeIn(candidates).stream()
+                        .collect(Collectors.toMap(SwiftCodeSummary::swiftCode, SwiftCodeMapper::toBasicDTO));
+        existenceFilter.recordFalsePositives(candidates.size() - found.size());
+        return found;
+    }
+
+    @Override
+    public boolean existsByCountry(final String countryISO2) {
+        return repository.existsByCountryISO2(countryISO2);
+    }
+
+    @Override
+    public List<SwiftCodeSummary> findByCountry(final String countryISO2) {
+        return repository.findByCountryISO2(countryISO2);
+    }
+
+    @Override
+    public List<SwiftCodeSummary> findPageByCountry(final String countryISO2, final String after, final int limit) {
+        return repository.findByCountryISO2AndSwiftCodeGreaterThanOrderBySwiftCodeAsc(
+                countryISO2, after != null ? after : "", Limit.of(limit));
+    }
+
+    @Override
+    @Transactional
+    public void forEachByCountry(final String countryISO2, final Consumer<SwiftCodeSummary> action) {
+        try (Stream<SwiftCodeSummary> summaries = repository.streamByCountryISO2(countryISO2)) {
+            summaries.forEach(action);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void forEach(final Consumer<SwiftCodeSummary> action) {
+        try (Stream<SwiftCodeSummary> summaries = repository.streamAll()) {
+            summaries.forEach(action);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.remitly.exercise.swiftCode.features;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Reads several row sources (sheets, files) at once and converts their rows on a worker pool, while every
+ * converted chunk is handed to the writer on the calling thread, which keeps writes inside the caller's
+ * transaction.
+ * <p>
+ * Each source is read on its own reader thread and cut into chunks; each chunk is converted on a worker and
+ * its future is queued for the writer. Queues are bounded, so a slow writer stalls the readers instead of
+ * buffering the whole input. Readers and workers use separate pools, so a reader blocked on a full queue
+ * never holds up the conversions the writer is waiting for.
+ * <p>
+ * When {@code ordered}, each source has its own queue and the writer drains them one after another, so chunks
+ * arrive in source order and, within a source, in row order (a later row for the same key still wins). When
+ * not ordered, all sources share one queue and chunks are written as they are produced.
+ *
+ * @param <R> raw row type produced by the sources
+ * @param <E> converted row type; rows converted to {@code null} are dropped
+ */
+public final class ParallelChunkPipeline<R, E> {
+
+    /**
+     * Produces the rows of one source; called once, on a reader thread.
+     */
+    @FunctionalInterface
+    public interface RowSource<R> {
+
+        void produce(Consumer<R> rows) throws Exception;
+    }
+
+    private final int workers;
+
+    private final int chunkSize;
+
+    private final boolean ordered;
+
+    private final Function<R, E> converter;
+
+    private final Future<List<E>> end = CompletableFuture.completedFuture(List.of());
+
+    public ParallelChunkPipeline(int workers, int chunkSize, boolean ordered, Function<R, E> converter) {
+        if (workers < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("workers and chunkSize must be positive");
+        }
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+        this.ordered = ordered;
+        this.converter = converter;
+    }
+
+    /**
+     * Runs all sources to completion, passing each converted chunk to {@code writer} on the calling thread. The
+     * first failure of a source, a conversion or the writer aborts the whole run and is rethrown.
+     */
+    public void run(List<? extends RowSource<R>> sources, Consumer<List<E>> writer) {
+        if (sources.isEmpty()) {
+            return;
+        }
+        final int capacity = 2 * workers;
+        final List<BlockingQueue<Future<List<E>>>> queues = new ArrayList<>();
+        for (int i = 0; i < (ordered ? sources.size() : 1); i++) {
+            queues.add(new ArrayBlockingQueue<>(capacity));
+        }
+
+        final ExecutorService readers = Executors.newFixedThreadPool(Math.min(workers, sources.size()),
+                Thread.ofPlatform().name("swift-import-reader-", 0).daemon(true).factory());
+        final ExecutorService converters = Executors.newFixedThreadPool(workers,
+                Thread.ofPlatform().name("swift-import-worker-", 0).daemon(true).factory());
+        try {
+            for (int i = 0; i < sources.size(); i++) {
+                readers.execute(new SourceReader(sources.get(i), queues.get(ordered ? i : 0), converters));
+            }
+            for (final BlockingQueue<Future<List<E>>> queue : queues) {
+                int open = ordered ? 1 : sources.size();
+                while (open > 0) {
+                    final Future<List<E>> next = queue.take();
+                    if (next == end) {
+                        open--;
+                    } else {
+                        writer.accept(next.get());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while importing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            readers.shutdownNow();
+            converters.shutdownNow();
+        }
+    }
+
+    private List<E> convert(List<R> rows) {
+        final List<E> converted = new ArrayList<>(rows.size());
+        for (final R row : rows) {
+            final E value = converter.apply(row);
+            if (value != null) {
+                converted.add(value);
+            }
+        }
+        return converted;
+    }
+
+    /**
+     * Reads one source, submits a conversion per full chunk and always ends its output with the end marker. A
+     * failure, an {@link Error} included, is queued as a failed future so the writer rethrows it in order instead of
+     * waiting for an end marker that never comes.
+     */
+    private final class SourceReader implements Runnable {
+
+        private final RowSource<R> source;
+
+        private final BlockingQueue<Future<List<E>>> queue;
+
+        private final ExecutorService converters;
+
+        private List<R> chunk = new ArrayList<>(chunkSize);
+
+        SourceReader(RowSource<R> source, BlockingQueue<Future<List<E>>> queue, ExecutorService converters) {
+            this.source = source;
+            this.queue = queue;
+            this.converters = converters;
+        }
+
+        @Override
+        public void run() {
+            try {
+                try {
+                    source.produce(this::accept);
+                    submit();
+                } catch (Exception | Error e) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    put(CompletableFuture.failedFuture(e));
+                }
+                put(end);
+            } catch (CancellationException e) {
+                // the writer aborted the run and no longer reads this queue
+            }
+        }
+
+        private void accept(R row) {
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                submit();
+            }
+        }
+
+        private void submit() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            final List<R> rows = chunk;
+            chunk = new ArrayList<>(chunkSize);
+            put(CompletableFuture.supplyAsync(() -> convert(rows), converters));
+        }
+
+        /** Blocks while the queue is full; the writer aborting a run interrupts the wait. */
+        private void put(Future<List<E>> future) {
+            try {
+                queue.put(future);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Import aborted");
+            }
+        }
+    }
+}
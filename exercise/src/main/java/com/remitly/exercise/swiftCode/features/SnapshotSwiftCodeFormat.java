@@ -0,0 +1,175 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeEntity;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Compact binary snapshot of the directory, written by the export and read back without any text parsing. The
+ * file is sorted and indexed (see {@link SwiftCodeSnapshot} for the layout), so besides being re-imported it
+ * can be queried in place by {@link SnapshotSwiftCodeReadStore}.
+ * <p>
+ * Branch links are not stored; the import recomputes them from the 8-character prefixes. Codes that are not
+ * 1-11 characters of {@code [0-9A-Z]} have no fixed-width key and fail the export. The API and the imports reject
+ * such codes, so only rows written to the table directly can hold one.
+ */
+@Component
+public class SnapshotSwiftCodeFormat implements SwiftCodeImporter, SwiftCodeExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public String format() {
+        return "swft";
+    }
+
+    @Override
+    public String contentType() {
+        return "application/octet-stream";
+    }
+
+    @Override
+    public void read(Path file, Consumer<SwiftCodeEntity> rows) throws IOException {
+        SwiftCodeSnapshot.open(file).forEach(row -> rows.accept(SwiftCodeEntity.builder()
+                .swiftCode(row.swiftCode())
+                .bankName(row.bankName())
+                .address(row.address())
+                .countryISO2(row.countryISO2())
+                .countryName(row.countryName())
+                .isHeadquarter(row.isHeadquarter())
+                .build()));
+    }
+
+    /**
+     * Rows are collected until {@link RowWriter#close()}, because they are written sorted by key and every
+     * section's size must be known before the sections that follow it.
+     */
+    @Override
+    public RowWriter open(OutputStream out) {
+        final TreeMap<Long, SwiftCodeSummary> rows = new TreeMap<>();
+        return new RowWriter() {
+
+            private boolean failed;
+
+            @Override
+            public void write(SwiftCodeSummary row) throws IOException {
+                final long key = SwiftCodeKeys.pack(row.swiftCode());
+                if (key == SwiftCodeKeys.INVALID) {
+                    failed = true;
+                    throw new IOException("SWIFT code '" + row.swiftCode()
+                            + "' is not 1-11 characters of [0-9A-Z] and cannot be stored in a snapshot.");
+                }
+                rows.put(key, row);
+            }
+
+            @Override
+            public void close() throws IOException {
+                // a failed export writes nothing rather than a snapshot missing rows
+                if (!failed) {
+                    writeSnapshot(new ArrayList<>(rows.values()), out);
+                }
+            }
+        };
+    }
+
+    private static void writeSnapshot(List<SwiftCodeSummary> rows, OutputStream out) throws IOException {
+        final StringRegion strings = new StringRegion();
+        final Map<String, Integer> countries = new HashMap<>();
+        final List<String> countryCodes = new ArrayList<>();
+        final List<List<Integer>> countryRows = new ArrayList<>();
+        final int[] rowCountries = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            final String countryISO2 = rows.get(i).countryISO2();
+            if (countryISO2 == null) {
+                rowCountries[i] = SwiftCodeSnapshot.NULL_REFERENCE;
+                continue;
+            }
+            final int country = countries.computeIfAbsent(countryISO2, c -> {
+                countryCodes.add(c);
+                countryRows.add(new ArrayList<>());
+                return countryCodes.size() - 1;
+            });
+            countryRows.get(country).add(i);
+            rowCountries[i] = country;
+        }
+
+        final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        data.writeInt(SwiftCodeSnapshot.MAGIC);
+        data.writeShort(SwiftCodeSnapshot.VERSION);
+        data.writeShort(0);
+        data.writeInt(rows.size());
+        data.writeInt(countryCodes.size());
+
+        for (int i = 0; i < rows.size(); i++) {
+            final SwiftCodeSummary row = rows.get(i);
+            data.writeLong(SwiftCodeKeys.pack(row.swiftCode()));
+            data.writeInt(strings.reference(row.bankName()));
+            data.writeInt(strings.reference(row.address()));
+            data.writeInt(strings.reference(row.countryName()));
+            data.writeInt(rowCountries[i]);
+            data.writeByte(row.isHeadquarter() == null ? SwiftCodeSnapshot.HEADQUARTER_UNKNOWN
+                    : row.isHeadquarter() ? SwiftCodeSnapshot.HEADQUARTER : 0);
+        }
+
+        int first = 0;
+        for (int i = 0; i < countryCodes.size(); i++) {
+            data.writeInt(strings.reference(countryCodes.get(i)));
+            data.writeInt(first);
+            data.writeInt(countryRows.get(i).size());
+            first += countryRows.get(i).size();
+        }
+        for (final List<Integer> positions : countryRows) {
+            for (final int position : positions) {
+                data.writeInt(position);
+            }
+        }
+        // rows without a country are in no group; pad the table to one entry per row as the layout expects
+        for (int i = first; i < rows.size(); i++) {
+            data.writeInt(SwiftCodeSnapshot.NULL_REFERENCE);
+        }
+
+        for (final byte[] string : strings.values) {
+            data.writeInt(string.length);
+            data.write(string);
+        }
+        data.flush();
+    }
+
+    /**
+     * Assigns each distinct string its byte offset in the string region.
+     */
+    private static final class StringRegion {
+
+        private final Map<String, Integer> offsets = new HashMap<>();
+
+        private final List<byte[]> values = new ArrayList<>();
+
+        private int size;
+
+        int reference(String value) {
+            if (value == null) {
+                return SwiftCodeSnapshot.NULL_REFERENCE;
+            }
+            return offsets.computeIfAbsent(value, v -> {
+                final byte[] utf8 = v.getBytes(StandardCharsets.UTF_8);
+                values.add(utf8);
+                final int offset = size;
+                size += Integer.BYTES + utf8.length;
+                return offset;
+            });
+        }
+    }
+}
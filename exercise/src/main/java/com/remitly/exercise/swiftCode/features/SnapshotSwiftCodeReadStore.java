@@ -0,0 +1,246 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import com.remitly.exercise.swiftCode.core.SwiftCodesChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Serves every read from a memory-mapped {@link SwiftCodeSnapshot} file. An existing file is mapped as soon as
+ * the bean is created, so a restarted or new replica answers from it before anything is read from PostgreSQL.
+ * <p>
+ * Once the application is ready and after committed changes the table is exported to a temporary file next to
+ * the snapshot, mapped, and then moved over the snapshot; readers keep the mapping they started with and the next
+ * read sees the new one. The export runs on a background thread, {@code swift.store.snapshot-refresh-delay} after
+ * the first change since the last one started, so a burst of writes costs one export and the writers never wait
+ * for it. Until it finishes the previous mapping is served, together with the dataset version it was exported at,
+ * which {@link SwiftDatasetVersion} hands out as the ETag. Each swap publishes a {@link Swapped} with the countries
+ * changed since the previous export, so {@link SwiftCountryResponseCache} rebuilds them before the ETag moves on.
+ */
+@Component
+@ConditionalOnProperty(name = "swift.store", havingValue = "snapshot")
+public class SnapshotSwiftCodeReadStore implements SwiftCodeReadStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotSwiftCodeReadStore.class);
+
+    private final SwiftCodeExportService exportService;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final SnapshotSwiftCodeFormat format;
+
+    private final Path file;
+
+    private final long refreshDelayMillis;
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("swift-snapshot-refresh").daemon(true).factory());
+
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+
+    // what the next swap changes for listeners; the first one replaces whatever was mapped at startup
+    private final Set<String> changedCodes = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> changedCountries = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean fullReloadPending = new AtomicBoolean(true);
+
+    private volatile SwiftCodeSnapshot snapshot;
+
+    private volatile String etag;
+
+    public SnapshotSwiftCodeReadStore(final SwiftCodeExportService exportService,
+                                      final JdbcTemplate jdbcTemplate,
+                                      final ApplicationEventPublisher eventPublisher,
+                                      final SnapshotSwiftCodeFormat format,
+                                      @Value("${swift.store.snapshot-file:swift-codes.swft}") final String file,
+                                      @Value("${swift.store.snapshot-refresh-delay:1s}") final Duration refreshDelay) {
+        this.exportService = exportService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.format = format;
+        this.file = Path.of(file).toAbsolutePath();
+        this.refreshDelayMillis = refreshDelay.toMillis();
+        if (Files.isRegularFile(this.file)) {
+            try {
+                snapshot = SwiftCodeSnapshot.open(this.file);
+                logger.info("Serving {} SWIFT codes from snapshot {}.", snapshot.size(), this.file);
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable snapshot {}: {}", this.file, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public Optional<SwiftCodeDTO> findDetailed(final String swiftCode) {
+        final SwiftCodeSnapshot current = snapshot;
+        return current == null ? Optional.empty() : current.findDetailed(swiftCode);
+    }
+
+    @Override
+    public Map<String, SwiftCodeDTO> findAll(final Collection<String> swiftCodes, final boolean includeBranches) {
+        final SwiftCodeSnapshot current = snapshot;
+        final Map<String, SwiftCodeDTO> found = new HashMap<>();
+        if (current != null) {
+            for (final String swiftCode : swiftCodes) {
+                (includeBranches ? current.findDetailed(swiftCode) : current.findBasic(swiftCode))
+                        .ifPresent(dto -> found.put(swiftCode, dto));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public boolean existsByCountry(final String countryISO2) {
+        final SwiftCodeSnapshot current = snapshot;
+        return current != null && current.containsCountry(countryISO2);
+    }
+
+    @Override
+    public List<SwiftCodeSummary> findByCountry(final String countryISO2) {
+        final SwiftCodeSnapshot current = snapshot;
+        return current == null ? List.of() : current.findByCountry(countryISO2);
+    }
+
+    @Override
+    public List<SwiftCodeSummary> findPageByCountry(final String countryISO2, final String after, final int limit) {
+        final SwiftCodeSnapshot current = snapshot;
+        return current == null ? List.of() : current.findPageByCountry(countryISO2, after, limit);
+    }
+
+    @Override
+    public void forEachByCountry(final String countryISO2, final Consumer<SwiftCodeSummary> action) {
+        final SwiftCodeSnapshot current = snapshot;
+        if (current != null) {
+            current.forEachByCountry(countryISO2, action);
+        }
+    }
+
+    @Override
+    public void forEach(final Consumer<SwiftCodeSummary> action) {
+        final SwiftCodeSnapshot current = snapshot;
+        if (current != null) {
+            current.forEach(action);
+        }
+    }
+
+    public int size() {
+        final SwiftCodeSnapshot current = snapshot;
+        return current == null ? 0 : current.size();
+    }
+
+    /**
+     * The quoted ETag of the dataset version the served snapshot was exported at, or {@code null} before the
+     * first export. The version is read before the export, so the data is never older than it says.
+     */
+    public String etag() {
+        return etag;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRefresh(0);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSwiftCodesChanged(final SwiftCodesChangedEvent event) {
+        if (event.fullReload()) {
+            fullReloadPending.set(true);
+        }
+        changedCodes.addAll(event.swiftCodes());
+        changedCountries.addAll(event.countries());
+        scheduleRefresh(refreshDelayMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void scheduleRefresh(final long delayMillis) {
+        if (refreshPending.compareAndSet(false, true)) {
+            refresher.schedule(this::refresh, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Re-exports {@code swift_codes} and swaps the new snapshot in; retried after the refresh delay if it fails.
+     */
+    private void refresh() {
+        // changes committed from now on may be missed by this export, so they schedule the next one
+        refreshPending.set(false);
+        final boolean fullReload = fullReloadPending.getAndSet(false);
+        final Set<String> codes = Set.copyOf(changedCodes);
+        changedCodes.removeAll(codes);
+        final Set<String> countries = Set.copyOf(changedCountries);
+        changedCountries.removeAll(countries);
+        final long start = System.nanoTime();
+        try {
+            final String exportedAt = SwiftDatasetVersion.readEtag(jdbcTemplate);
+            final Path directory = file.getParent();
+            Files.createDirectories(directory);
+            final Path next = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(next)) {
+                    exportService.export(format, out);
+                }
+                final SwiftCodeSnapshot refreshed = SwiftCodeSnapshot.open(next);
+                Files.move(next, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                snapshot = refreshed;
+                eventPublisher.publishEvent(new Swapped(codes, countries, fullReload));
+                etag = exportedAt;
+                logger.info("Wrote and mapped a snapshot of {} SWIFT codes in {} ms.",
+                        refreshed.size(), (System.nanoTime() - start) / 1_000_000);
+            } finally {
+                Files.deleteIfExists(next);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not refresh SWIFT code snapshot {}, serving the previous one: {}", file, e.getMessage());
+            if (fullReload) {
+                fullReloadPending.set(true);
+            }
+            changedCodes.addAll(codes);
+            changedCountries.addAll(countries);
+            scheduleRefresh(refreshDelayMillis);
+        }
+    }
+
+    /**
+     * Published on the refresh thread right after a new snapshot is served, before its ETag is;
+     * {@code swiftCodes} and {@code countries} list those changed since the previous snapshot, or everything
+     * changed if {@code fullReload}.
+     */
+    public record Swapped(Set<String> swiftCodes, Set<String> countries, boolean fullReload) {
+    }
+}
@@ -0,0 +1,176 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeBatchResponse;
+import com.remitly.exercise.swiftCode.core.SwiftCodeBatchResult;
+import com.remitly.exercise.swiftCode.core.SwiftCodeBulkWriter;
+import com.remitly.exercise.swiftCode.core.SwiftCodeEntity;
+import com.remitly.exercise.swiftCode.core.SwiftCodeFamilyLocks;
+import com.remitly.exercise.swiftCode.core.SwiftCodeRequest;
+import com.remitly.exercise.swiftCode.core.SwiftCodesChangedEvent;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates and deletes many SWIFT codes in one transaction. Every item gets its own status instead of one bad
+ * item failing the request, and the database work per batch is a fixed number of set-based statements rather
+ * than several round-trips per code.
+ */
+@Service
+public class SwiftCodeBatchService {
+
+    private final SwiftCodeBulkWriter bulkWriter;
+
+    private final SwiftCodeFamilyLocks familyLocks;
+
+    private final Validator validator;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SwiftCodeBatchService(SwiftCodeBulkWriter bulkWriter,
+                                 SwiftCodeFamilyLocks familyLocks,
+                                 Validator validator,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.bulkWriter = bulkWriter;
+        this.familyLocks = familyLocks;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Validates every request with the {@link SwiftCodeRequest} constraints, inserts the valid codes that do not
+     * exist yet and links the affected headquarters and branches in one statement. The banks of the batch are
+     * locked first, see {@link SwiftCodeFamilyLocks}.
+     */
+    @Transactional
+    public SwiftCodeBatchResponse createAll(List<SwiftCodeRequest> requests) {
+        final SwiftCodeBatchResult[] results = new SwiftCodeBatchResult[requests.size()];
+        final Map<String, Integer> accepted = new LinkedHashMap<>();
+        final List<SwiftCodeEntity> entities = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            final SwiftCodeRequest request = requests.get(i);
+            if (request == null) {
+                results[i] = result(null, HttpStatus.BAD_REQUEST, "SWIFT code entry cannot be null.");
+                continue;
+            }
+            final Set<ConstraintViolation<SwiftCodeRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                results[i] = invalid(request.getSwiftCode(), violations);
+                continue;
+            }
+            if (accepted.putIfAbsent(request.getSwiftCode(), i) != null) {
+                results[i] = result(request.getSwiftCode(), HttpStatus.BAD_REQUEST,
+                        "SWIFT code is repeated in the batch.");
+                continue;
+            }
+            entities.add(SwiftCodeMapper.toEntity(request));
+        }
+
+        familyLocks.lock(accepted.keySet());
+        final Set<String> inserted = bulkWriter.insertMissing(entities);
+        accepted.forEach((swiftCode, i) -> results[i] = inserted.contains(swiftCode)
+                ? result(swiftCode, HttpStatus.CREATED, "SWIFT code created successfully.")
+                : result(swiftCode, HttpStatus.BAD_REQUEST, "SWIFT code already exists."));
+
+        if (!inserted.isEmpty()) {
+            final Set<String> prefixes = new HashSet<>();
+            for (final String swiftCode : inserted) {
+                prefixes.add(swiftCode.substring(0, 8));
+            }
+            final Set<String> affectedCodes = new HashSet<>(inserted);
+            affectedCodes.addAll(bulkWriter.linkHeadquarters(prefixes));
+            addHeadquarters(affectedCodes, inserted);
+            final Set<String> countries = new HashSet<>();
+            for (final SwiftCodeEntity entity : entities) {
+                if (inserted.contains(entity.getSwiftCode())) {
+                    countries.add(entity.getCountryISO2());
+                }
+            }
+            eventPublisher.publishEvent(SwiftCodesChangedEvent.of(affectedCodes, countries));
+        }
+        return response(results);
+    }
+
+    /**
+     * Deletes the given codes in one statement; deleting a headquarter deletes its branches as well, as the
+     * single delete does.
+     */
+    @Transactional
+    public SwiftCodeBatchResponse deleteAll(List<String> swiftCodes) {
+        final SwiftCodeBatchResult[] results = new SwiftCodeBatchResult[swiftCodes.size()];
+        final Map<String, Integer> accepted = new LinkedHashMap<>();
+        for (int i = 0; i < swiftCodes.size(); i++) {
+            final String swiftCode = swiftCodes.get(i);
+            if (swiftCode == null || swiftCode.isBlank()) {
+                results[i] = result(swiftCode, HttpStatus.BAD_REQUEST, "SWIFT code cannot be blank.");
+            } else if (accepted.putIfAbsent(swiftCode, i) != null) {
+                results[i] = result(swiftCode, HttpStatus.BAD_REQUEST, "SWIFT code is repeated in the batch.");
+            }
+        }
+
+        familyLocks.lock(accepted.keySet());
+        final Map<String, String> deleted = bulkWriter.deleteWithBranches(accepted.keySet());
+        accepted.forEach((swiftCode, i) -> results[i] = deleted.containsKey(swiftCode)
+                ? result(swiftCode, HttpStatus.OK, "SWIFT code deleted successfully.")
+                : result(swiftCode, HttpStatus.NOT_FOUND, "SWIFT code " + swiftCode + " not found."));
+
+        if (!deleted.isEmpty()) {
+            final Set<String> affectedCodes = new HashSet<>(deleted.keySet());
+            addHeadquarters(affectedCodes, deleted.keySet());
+            eventPublisher.publishEvent(SwiftCodesChangedEvent.of(affectedCodes, deleted.values()));
+        }
+        return response(results);
+    }
+
+    /** The detailed view of a headquarter lists its branches, so it changes with them. */
+    private static void addHeadquarters(Set<String> affectedCodes, Set<String> swiftCodes) {
+        for (final String swiftCode : swiftCodes) {
+            if (swiftCode.length() >= 8) {
+                affectedCodes.add(swiftCode.substring(0, 8) + "XXX");
+            }
+        }
+    }
+
+    private static SwiftCodeBatchResponse response(SwiftCodeBatchResult[] results) {
+        final int succeeded = (int) Arrays.stream(results).filter(result -> result.getStatus() < 400).count();
+        return SwiftCodeBatchResponse.builder()
+                .results(Arrays.asList(results))
+                .succeeded(succeeded)
+                .failed(results.length - succeeded)
+                .build();
+    }
+
+    private static SwiftCodeBatchResult result(String swiftCode, HttpStatus status, String message) {
+        return SwiftCodeBatchResult.builder()
+                .swiftCode(swiftCode)
+                .status(status.value())
+                .message(message)
+                .build();
+    }
+
+    private static SwiftCodeBatchResult invalid(String swiftCode,
+                                                Set<ConstraintViolation<SwiftCodeRequest>> violations) {
+        return SwiftCodeBatchResult.builder()
+                .swiftCode(swiftCode)
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message("Validation Failed")
+                .validationErrors(violations.stream()
+                        .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                        .map(violation -> String.format("Field '%s': %s",
+                                violation.getPropertyPath(), violation.getMessage()))
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.remitly.exercise.swiftCode.features;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over SWIFT codes: {@link #mightContain} is never wrong about a code that was {@link #put}, and
+ * wrong about an absent code with roughly the rate it was sized for. Bits are only ever set, so removed codes keep
+ * answering "might contain" until the filter is rebuilt.
+ * <p>
+ * The {@code k} bit positions come from two 64-bit hashes of the code ({@code h1 + i * h2}), which performs like
+ * {@code k} independent hashes. Bits live in an {@link AtomicLongArray}, so a code put by one thread is seen by
+ * every later {@link #mightContain} on another, without locking.
+ */
+public final class SwiftCodeBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+
+    private final long bits;
+
+    private final int hashes;
+
+    private final long capacity;
+
+    private final AtomicLong puts = new AtomicLong();
+
+    private SwiftCodeBloomFilter(final long bits, final int hashes, final long capacity) {
+        this.words = new AtomicLongArray(Math.toIntExact((bits + 63) / 64));
+        this.bits = bits;
+        this.hashes = hashes;
+        this.capacity = capacity;
+    }
+
+    /**
+     * A filter whose false-positive rate stays at about {@code falsePositiveRate} while it holds up to
+     * {@code expectedCodes} codes, and degrades gradually beyond that.
+     */
+    public static SwiftCodeBloomFilter create(final long expectedCodes, final double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1, got " + falsePositiveRate);
+        }
+        final long n = Math.max(1, expectedCodes);
+        final long bits = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2)));
+        final int hashes = (int) Math.max(1, Math.round((double) bits / n * LN2));
+        return new SwiftCodeBloomFilter(bits, hashes, n);
+    }
+
+    public void put(final String swiftCode) {
+        final long h1 = hash(swiftCode);
+        final long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            final long bit = Math.floorMod(h1 + i * h2, bits);
+            final int word = (int) (bit >>> 6);
+            final long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.weakCompareAndSetVolatile(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+        puts.incrementAndGet();
+    }
+
+    public boolean mightContain(final String swiftCode) {
+        final long h1 = hash(swiftCode);
+        final long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            final long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The false-positive rate implied by the share of bits set, {@code (set / bits)^k}; it rises with every put,
+     * including codes deleted since.
+     */
+    public double expectedFalsePositiveRate() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) set / bits, hashes);
+    }
+
+    /** Number of {@link #put} calls, repeated codes included. */
+    public long puts() {
+        return puts.get();
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    /** 64-bit FNV-1a of the characters, finished with {@link #mix} so that nearby codes spread over all bits. */
+    private static long hash(final String swiftCode) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < swiftCode.length(); i++) {
+            h = (h ^ swiftCode.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /** The MurmurHash3 64-bit finalizer. */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,262 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.remitly.exercise.swiftCode.core.SwiftCodesChangedEvent;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the in-process read structures of several instances sharing one database coherent without a broker, over
+ * PostgreSQL {@code LISTEN/NOTIFY}.
+ * <p>
+ * Every local {@link SwiftCodesChangedEvent} is sent as a notification on {@value #CHANNEL} from inside the
+ * writing transaction, which PostgreSQL delivers only if and when it commits. A dedicated connection listens on
+ * the channel and republishes the notifications of other instances as {@link SwiftCodesChangedEvent#remote}
+ * events, so the lookup and country caches, the read stores, the search index and the existence filter apply them
+ * exactly like local writes. Notifications sent while the listening connection is down, or before it first
+ * listens, are lost, so everything is reloaded each time it starts listening. Each time the connection starts or stops listening a {@link ListeningChanged}
+ * is published, for state that cannot be trusted meanwhile.
+ */
+@Component
+@ConditionalOnProperty(name = "swift.cluster.notify.enabled", havingValue = "true", matchIfMissing = true)
+public class SwiftCodeChangeBridge implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(SwiftCodeChangeBridge.class);
+
+    static final String CHANNEL = "swift_codes_changed";
+
+    private static final String LISTENER_NAME = "swift-change-listener";
+
+    private static final String SELECT_VERSION = "SELECT version FROM swift_dataset_version WHERE id = 1";
+
+    // payloads are limited to 8000 bytes; larger changes are split over several notifications
+    private static final int MAX_CODE_BYTES = 6000;
+
+    private static final int POLL_MILLIS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper;
+
+    private final String nodeId;
+
+    private final Duration reconnectDelay;
+
+    private volatile boolean running;
+
+    private volatile Thread listener;
+
+    private volatile Connection connection;
+
+    public SwiftCodeChangeBridge(final JdbcTemplate jdbcTemplate,
+                                 final DataSourceProperties dataSourceProperties,
+                                 final ApplicationEventPublisher eventPublisher,
+                                 final ObjectMapper objectMapper,
+                                 @Value("${swift.cluster.node-id:}") final String nodeId,
+                                 @Value("${swift.cluster.notify.reconnect-delay:5s}") final Duration reconnectDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    /** Identifies this instance's notifications, so that it skips them when they come back. */
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Sends {@code event} to the other instances; runs right away, after the fact, for writes outside a
+     * transaction.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onSwiftCodesChanged(final SwiftCodesChangedEvent event) throws JsonProcessingException {
+        if (event.remote()) {
+            return;
+        }
+        final long version = jdbcTemplate.queryForObject(SELECT_VERSION, Long.class);
+        final List<List<String>> chunks = chunks(event.swiftCodes());
+        for (int i = 0; i < chunks.size(); i++) {
+            final String payload = objectMapper.writeValueAsString(new Notification(nodeId, version,
+                    event.fullReload(), chunks.get(i), i == 0 ? List.copyOf(event.countries()) : List.of()));
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {
+            }, CHANNEL, payload);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listener = Thread.ofPlatform().daemon(true).name(LISTENER_NAME).start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        final Thread thread = listener;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        closeQuietly(connection);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean missed = false;
+        while (running) {
+            try (Connection listening = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    connectionProperties())) {
+                connection = listening;
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (missed) {
+                    logger.warn("Listening for SWIFT code changes again; reloading, as notifications may have been missed.");
+                    missed = false;
+                }
+                // everything committed up to this version is reloaded; later commits are notified
+                final long version;
+                try (Statement statement = listening.createStatement();
+                     ResultSet rs = statement.executeQuery(SELECT_VERSION)) {
+                    rs.next();
+                    version = rs.getLong(1);
+                }
+                eventPublisher.publishEvent(SwiftCodesChangedEvent.remote(Set.of(), Set.of(), true, version));
+                eventPublisher.publishEvent(new ListeningChanged(true));
+                final PGConnection pgConnection = listening.unwrap(PGConnection.class);
+                while (running) {
+                    final PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (final PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    if (!missed) {
+                        eventPublisher.publishEvent(new ListeningChanged(false));
+                    }
+                    logger.warn("Lost the connection listening for SWIFT code changes, retrying in {}: {}",
+                            reconnectDelay, e.getMessage());
+                    sleep(reconnectDelay);
+                }
+                missed = true;
+            }
+        }
+    }
+
+    private void receive(final String payload) {
+        try {
+            final Notification notification = objectMapper.readValue(payload, Notification.class);
+            if (nodeId.equals(notification.node())) {
+                return;
+            }
+            logger.debug("Applying SWIFT code changes from {} at version {}.", notification.node(), notification.version());
+            eventPublisher.publishEvent(SwiftCodesChangedEvent.remote(
+                    notification.swiftCodes(), notification.countries(), notification.fullReload(),
+                    notification.version()));
+        } catch (RuntimeException | JsonProcessingException e) {
+            logger.error("Could not apply SWIFT code change notification {}", payload, e);
+        }
+    }
+
+    private static List<List<String>> chunks(final Set<String> swiftCodes) {
+        final List<List<String>> chunks = new ArrayList<>();
+        List<String> chunk = new ArrayList<>();
+        int bytes = 0;
+        for (final String swiftCode : swiftCodes) {
+            // quotes and comma around every code
+            if (bytes + swiftCode.length() + 3 > MAX_CODE_BYTES && !chunk.isEmpty()) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                bytes = 0;
+            }
+            chunk.add(swiftCode);
+            bytes += swiftCode.length() + 3;
+        }
+        chunks.add(chunk);
+        return chunks;
+    }
+
+    private Properties connectionProperties() {
+        final Properties properties = new Properties();
+        final String username = dataSourceProperties.determineUsername();
+        final String password = dataSourceProperties.determinePassword();
+        if (username != null) {
+            properties.setProperty("user", username);
+        }
+        if (password != null) {
+            properties.setProperty("password", password);
+        }
+        // tells the listening connection apart in pg_stat_activity
+        properties.setProperty("ApplicationName", LISTENER_NAME);
+        return properties;
+    }
+
+    private static void sleep(final Duration delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(final Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.debug("Could not close the listening connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Published from the listening thread once it listens on {@value #CHANNEL}, after any reload for notifications
+     * it missed, and when the connection is lost.
+     */
+    public record ListeningChanged(boolean listening) {
+    }
+
+    /**
+     * Body of one notification; {@code version} is the dataset version the change committed as.
+     */
+    record Notification(String node, long version, boolean fullReload, List<String> swiftCodes,
+                        List<String> countries) {
+    }
+}
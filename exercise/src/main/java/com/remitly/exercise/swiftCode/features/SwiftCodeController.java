@@ -1,17 +1,33 @@
 package com.remitly.exercise.swiftCode.features;
 
 import com.remitly.exercise.exceptions.ResourceNotFoundException;
+import com.remitly.exercise.swiftCode.core.SwiftCodeBatchResponse;
 import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
 import com.remitly.exercise.swiftCode.core.SwiftCodeEntity;
+import com.remitly.exercise.swiftCode.core.SwiftCodeFamilyLocks;
+import com.remitly.exercise.swiftCode.core.SwiftCodeLookupRequest;
+import com.remitly.exercise.swiftCode.core.SwiftCodeLookupResponse;
+import com.remitly.exercise.swiftCode.core.SwiftCodeLookupResult;
 import com.remitly.exercise.swiftCode.core.SwiftCodeRepository;
 import com.remitly.exercise.swiftCode.core.SwiftCodeRequest;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSearchResponse;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
 import com.remitly.exercise.swiftCode.core.SwiftCodesByCountryDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodesChangedEvent;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -21,61 +37,259 @@ public class SwiftCodeController {
 
     private final SwiftCodeRepository repository;
 
-    public SwiftCodeController(final SwiftCodeRepository repository) {
+    private final SwiftCodeReadStore readStore;
+
+    private final SwiftCodeStreamingService streamingService;
+
+    private final SwiftCodeExportService exportService;
+
+    private final SwiftCodeBatchService batchService;
+
+    private final SwiftCodeSearchService searchService;
+
+    private final SwiftCodeFamilyLocks familyLocks;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final SwiftDatasetVersion datasetVersion;
+
+    private final SwiftCountryResponseCache countryResponses;
+
+    private final CacheControl cacheControl;
+
+    private final int maxPageSize;
+
+    private final int maxLookupCodes;
+
+    private final int maxBatchSize;
+
+    private final int maxSearchResults;
+
+    public SwiftCodeController(final SwiftCodeRepository repository,
+                               final SwiftCodeReadStore readStore,
+                               final SwiftCodeStreamingService streamingService,
+                               final SwiftCodeExportService exportService,
+                               final SwiftCodeBatchService batchService,
+                               final SwiftCodeSearchService searchService,
+                               final SwiftCodeFamilyLocks familyLocks,
+                               final ApplicationEventPublisher eventPublisher,
+                               final SwiftDatasetVersion datasetVersion,
+                               final SwiftCountryResponseCache countryResponses,
+                               @Value("${swift.http.cache.max-age:60s}") final Duration cacheMaxAge,
+                               @Value("${swift.country.max-page-size:1000}") final int maxPageSize,
+                               @Value("${swift.lookup.max-codes:1000}") final int maxLookupCodes,
+                               @Value("${swift.batch.max-size:1000}") final int maxBatchSize,
+                               @Value("${swift.search.max-results:100}") final int maxSearchResults) {
         this.repository = repository;
+        this.readStore = readStore;
+        this.streamingService = streamingService;
+        this.exportService = exportService;
+        this.batchService = batchService;
+        this.searchService = searchService;
+        this.familyLocks = familyLocks;
+        this.eventPublisher = eventPublisher;
+        this.datasetVersion = datasetVersion;
+        this.countryResponses = countryResponses;
+        this.cacheControl = cacheMaxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(cacheMaxAge).cachePublic();
+        this.maxPageSize = maxPageSize;
+        this.maxLookupCodes = maxLookupCodes;
+        this.maxBatchSize = maxBatchSize;
+        this.maxSearchResults = maxSearchResults;
     }
 
+    /**
+     * Carries the dataset version as ETag; a matching {@code If-None-Match} is answered with 304 before the read
+     * store is asked. Without a version (see {@link SwiftDatasetVersion#etag}) neither is sent.
+     */
     @GetMapping("/{swiftCode}")
-    public ResponseEntity<SwiftCodeDTO> findSwiftCode(@PathVariable final String swiftCode) {
-        final SwiftCodeEntity entity = repository.findById(swiftCode)
+    public ResponseEntity<SwiftCodeDTO> findSwiftCode(@PathVariable final String swiftCode,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        final String etag = datasetVersion.etag();
+        if (matchingTag(ifNoneMatch, etag).isPresent()) {
+            return notModified(etag);
+        }
+
+        final SwiftCodeDTO dto = readStore.findDetailed(swiftCode)
                 .orElseThrow(() -> new ResourceNotFoundException("SWIFT code " + swiftCode + " not found."));
-        return ResponseEntity.ok(toDetailedDTO(entity));
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(dto);
     }
 
+    /**
+     * Type-ahead search over SWIFT code prefixes and the words of bank names and towns, answered from memory; see
+     * {@link SwiftCodeSearchIndex#search}. {@code fuzzy=false} turns off edit-distance matching.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<SwiftCodeSearchResponse> searchSwiftCodes(@RequestParam(defaultValue = "") final String q,
+                                                                    @RequestParam(defaultValue = "20") final int limit,
+                                                                    @RequestParam(defaultValue = "true") final boolean fuzzy) {
+        if (q.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be blank.");
+        }
+        if (limit < 1 || limit > maxSearchResults) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxSearchResults + ".");
+        }
+
+        final List<SwiftCodeDTO> results = searchService.search(q, limit, fuzzy).stream()
+                .map(SwiftCodeMapper::toBasicDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(SwiftCodeSearchResponse.builder()
+                .query(q)
+                .results(results)
+                .build());
+    }
+
+    /**
+     * Resolves up to {@code swift.lookup.max-codes} codes with one read-store query and answers each of them, found
+     * or not, in request order.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<SwiftCodeLookupResponse> lookupSwiftCodes(
+            @Valid @RequestBody final SwiftCodeLookupRequest request) {
+        final List<String> swiftCodes = request.getSwiftCodes();
+        if (swiftCodes.size() > maxLookupCodes) {
+            throw new IllegalArgumentException("At most " + maxLookupCodes + " SWIFT codes can be looked up at once.");
+        }
+
+        final Map<String, SwiftCodeDTO> found = readStore.findAll(new LinkedHashSet<>(swiftCodes),
+                request.isIncludeBranches());
+        final List<SwiftCodeLookupResult> results = swiftCodes.stream()
+                .map(swiftCode -> SwiftCodeLookupResult.builder()
+                        .swiftCode(swiftCode)
+                        .found(found.containsKey(swiftCode))
+                        .details(found.get(swiftCode))
+                        .build())
+                .collect(Collectors.toList());
+        final int foundCount = (int) results.stream().filter(SwiftCodeLookupResult::isFound).count();
+
+        return ResponseEntity.ok(SwiftCodeLookupResponse.builder()
+                .results(results)
+                .found(foundCount)
+                .notFound(results.size() - foundCount)
+                .build());
+    }
+
+    /**
+     * Without {@code after}/{@code limit} returns the whole country, pre-serialized by
+     * {@link SwiftCountryResponseCache} and gzip-encoded if the client accepts it. With either of them returns a
+     * keyset page ordered by SWIFT code, whose {@code nextAfter} is the cursor for the following page. Conditional
+     * requests are handled as for a single code.
+     */
     @GetMapping("/country/{countryISO2code}")
-    public ResponseEntity<SwiftCodesByCountryDTO> findSwiftCodesByCountry(@PathVariable final String countryISO2code) {
+    public ResponseEntity<?> findSwiftCodesByCountry(@PathVariable final String countryISO2code,
+                                                     @RequestParam(required = false) final String after,
+                                                     @RequestParam(required = false) final Integer limit,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        final String etag = datasetVersion.etag();
+        final Optional<String> matched = matchingTag(ifNoneMatch, etag);
+        if (matched.isPresent()) {
+            return notModified(matched.get());
+        }
+
         final String upperCountryCode = countryISO2code.toUpperCase();
-        final List<SwiftCodeEntity> entities = repository.findByCountryISO2(upperCountryCode);
+        if (after == null && limit == null) {
+            final SwiftCountryResponseCache.CountryResponse cached = countryResponses.get(upperCountryCode)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "No SWIFT codes found for country code " + countryISO2code));
+            final ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (cached.gzip() != null && acceptsGzip(acceptEncoding)) {
+                return builder.eTag(gzipTag(etag))
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .body(cached.gzip());
+            }
+            return builder.eTag(etag).body(cached.json());
+        }
+
+        final int pageSize = limit != null ? limit : maxPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxPageSize + ".");
+        }
+        List<SwiftCodeSummary> summaries = readStore.findPageByCountry(upperCountryCode, after, pageSize + 1);
+        String nextAfter = null;
+        if (summaries.size() > pageSize) {
+            summaries = summaries.subList(0, pageSize);
+            nextAfter = summaries.getLast().swiftCode();
+        }
 
-        if (entities.isEmpty()) {
+        if (summaries.isEmpty() && after == null) {
             throw new ResourceNotFoundException("No SWIFT codes found for country code " + countryISO2code);
         }
 
-        final String countryName = entities.getFirst().getCountryName();
-        final List<SwiftCodeDTO> swiftCodeDTOs = entities.stream()
-                .map(this::toBasicDTO)
+        final String countryName = summaries.isEmpty() ? null : summaries.getFirst().countryName();
+        final List<SwiftCodeDTO> swiftCodeDTOs = summaries.stream()
+                .map(SwiftCodeMapper::toBasicDTO)
                 .collect(Collectors.toList());
 
         final SwiftCodesByCountryDTO response = SwiftCodesByCountryDTO.builder()
                 .countryISO2(upperCountryCode)
                 .countryName(countryName)
                 .swiftCodes(swiftCodeDTOs)
+                .nextAfter(nextAfter)
                 .build();
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(response);
+    }
+
+    /**
+     * Streams every code of a country as NDJSON straight from a database cursor, without building the list.
+     */
+    @GetMapping(value = "/country/{countryISO2code}/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamSwiftCodesByCountry(@PathVariable final String countryISO2code) {
+        final String upperCountryCode = countryISO2code.toUpperCase();
+        if (!readStore.existsByCountry(upperCountryCode)) {
+            throw new ResourceNotFoundException("No SWIFT codes found for country code " + countryISO2code);
+        }
+
+        final StreamingResponseBody body = out -> streamingService.writeCountryAsNdjson(upperCountryCode, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Downloads the whole directory as CSV or as a binary snapshot ({@code swft}); either file can be imported
+     * again through {@code swift.import.file}.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSwiftCodes(
+            @RequestParam(defaultValue = "swft") final String format) {
+        final SwiftCodeExporter exporter = exportService.exporter(format.toLowerCase())
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Unsupported export format " + format + ", expected one of " + exportService.formats() + "."));
+
+        final StreamingResponseBody body = out -> exportService.export(exporter, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exporter.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("swift-codes." + exporter.format())
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     @PostMapping
     @Transactional
     public ResponseEntity<Map<String, String>> createNewSwiftCode(@Valid @RequestBody final SwiftCodeRequest request) {
         final String swiftCode = request.getSwiftCode();
+        // before any read, so that the checks below see every committed write of this bank
+        familyLocks.lock(List.of(swiftCode));
 
         if (repository.existsById(swiftCode)) {
             throw new IllegalArgumentException("SWIFT code already exists.");
         }
 
-        final SwiftCodeEntity entity = SwiftCodeEntity.builder()
-                .swiftCode(swiftCode)
-                .bankName(request.getBankName().trim())
-                .address(request.getAddress().trim())
-                .countryISO2(request.getCountryISO2().toUpperCase())
-                .countryName(request.getCountryName().toUpperCase())
-                .isHeadquarter(swiftCode.endsWith("XXX"))
-                .build();
+        final SwiftCodeEntity entity = SwiftCodeMapper.toEntity(request);
+
+        final Set<String> affectedCodes = new HashSet<>();
+        affectedCodes.add(swiftCode);
 
         if (!entity.getIsHeadquarter()) {
             final String headquarterSwiftCode = swiftCode.substring(0, 8) + "XXX";
             repository.findById(headquarterSwiftCode).ifPresent(entity::setHeadquarter);
+            affectedCodes.add(headquarterSwiftCode);
         } else {
             repository.saveAndFlush(entity);
             final String prefix = swiftCode.substring(0, 8);
@@ -84,11 +298,14 @@ public class SwiftCodeController {
                 if (!branch.getSwiftCode().equals(entity.getSwiftCode())) {
                     branch.setHeadquarter(entity);
                     entity.getBranches().add(branch);
+                    affectedCodes.add(branch.getSwiftCode());
                 }
             }
         }
 
         repository.saveAndFlush(entity);
+        eventPublisher.publishEvent(
+                SwiftCodesChangedEvent.of(affectedCodes, Collections.singleton(entity.getCountryISO2())));
 
         final Map<String, String> response = new HashMap<>();
         response.put("message", "SWIFT code created successfully.");
@@ -97,42 +314,94 @@ public class SwiftCodeController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Creates up to {@code swift.batch.max-size} codes in one transaction; each item is validated on its own and
+     * answered with its own status, in request order.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<SwiftCodeBatchResponse> createSwiftCodes(@RequestBody final List<SwiftCodeRequest> requests) {
+        checkBatchSize(requests.size());
+        return ResponseEntity.ok(batchService.createAll(requests));
+    }
+
+    /**
+     * Deletes up to {@code swift.batch.max-size} codes in one transaction, with a status per code.
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<SwiftCodeBatchResponse> removeSwiftCodes(@RequestBody final List<String> swiftCodes) {
+        checkBatchSize(swiftCodes.size());
+        return ResponseEntity.ok(batchService.deleteAll(swiftCodes));
+    }
+
     @DeleteMapping("/{swiftCode}")
+    @Transactional
     public ResponseEntity<Map<String, String>> removeSwiftCode(@PathVariable final String swiftCode) {
-        if (!repository.existsById(swiftCode)) {
-            throw new ResourceNotFoundException("SWIFT code " + swiftCode + " not found.");
+        familyLocks.lock(List.of(swiftCode));
+        final SwiftCodeEntity entity = repository.findById(swiftCode)
+                .orElseThrow(() -> new ResourceNotFoundException("SWIFT code " + swiftCode + " not found."));
+
+        // Deleting a headquarter cascades to its branches, so their cached views go as well.
+        final Set<String> affectedCodes = new HashSet<>();
+        final Set<String> countries = new HashSet<>();
+        affectedCodes.add(swiftCode);
+        countries.add(entity.getCountryISO2());
+        if (swiftCode.length() >= 8) {
+            affectedCodes.add(swiftCode.substring(0, 8) + "XXX");
         }
-        repository.deleteById(swiftCode);
+        entity.getBranches().forEach(branch -> {
+            affectedCodes.add(branch.getSwiftCode());
+            countries.add(branch.getCountryISO2());
+        });
+
+        repository.delete(entity);
+        eventPublisher.publishEvent(SwiftCodesChangedEvent.of(affectedCodes, countries));
 
         return ResponseEntity.ok(Map.of("message", "SWIFT code deleted successfully."));
     }
 
-    private SwiftCodeDTO toDetailedDTO(final SwiftCodeEntity entity) {
-        final SwiftCodeDTO.SwiftCodeDTOBuilder builder = SwiftCodeDTO.builder()
-                .swiftCode(entity.getSwiftCode())
-                .bankName(entity.getBankName())
-                .address(entity.getAddress())
-                .countryISO2(entity.getCountryISO2())
-                .countryName(entity.getCountryName())
-                .isHeadquarter(entity.getIsHeadquarter());
-
-        if (entity.getIsHeadquarter() && entity.getBranches() != null && !entity.getBranches().isEmpty()) {
-            final List<SwiftCodeDTO> branchDTOs = entity.getBranches().stream()
-                    .map(this::toDetailedDTO)
-                    .collect(Collectors.toList());
-            builder.branches(branchDTOs);
-        }
-        return builder.build();
-    }
-
-    private SwiftCodeDTO toBasicDTO(final SwiftCodeEntity entity) {
-        return SwiftCodeDTO.builder()
-                .swiftCode(entity.getSwiftCode())
-                .bankName(entity.getBankName())
-                .address(entity.getAddress())
-                .countryISO2(entity.getCountryISO2())
-                .countryName(entity.getCountryName())
-                .isHeadquarter(entity.getIsHeadquarter())
-                .build();
+    /**
+     * The entity tag in {@code If-None-Match} that matches {@code etag} or its gzip variant, compared weakly as
+     * required for that header, i.e. ignoring {@code W/} prefixes. {@code *} is left to the normal path, which
+     * knows whether the resource exists.
+     */
+    private static Optional<String> matchingTag(final String ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return Optional.empty();
+        }
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        final String gzipEtag = gzipTag(etag);
+        return headers.getIfNoneMatch().stream()
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .filter(tag -> tag.equals(etag) || tag.equals(gzipEtag))
+                .findFirst();
+    }
+
+    /** A strong ETag names one encoding of the body, so the gzip variant gets its own. */
+    private static String gzipTag(final String etag) {
+        return etag == null ? null : etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    private static boolean acceptsGzip(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (final String coding : acceptEncoding.split(",")) {
+            final String[] parameters = coding.split(";");
+            if (parameters[0].trim().equalsIgnoreCase("gzip")) {
+                return parameters.length < 2 || !parameters[1].trim().matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
+    }
+
+    private <T> ResponseEntity<T> notModified(final String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+    }
+
+    private void checkBatchSize(final int size) {
+        if (size < 1 || size > maxBatchSize) {
+            throw new IllegalArgumentException("A batch must contain between 1 and " + maxBatchSize + " items.");
+        }
     }
 }
@@ -0,0 +1,263 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodesChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lets {@link JpaSwiftCodeReadStore} answer lookups of codes that do not exist without a query, from a
+ * {@link SwiftCodeBloomFilter} over every code in {@code swift_codes}.
+ * <p>
+ * The filter must never miss a committed code, so codes are added before their transaction commits; a rollback
+ * only leaves a false positive behind. An import suspends the filter before it commits and rebuilds it afterwards.
+ * Codes created by other instances arrive through {@link SwiftCodeChangeBridge} once they have committed, so the
+ * filter is only built while the bridge is listening: it is off when {@code swift.cluster.notify.enabled} is
+ * {@code false}, suspended when the listening connection drops, and rebuilt once it listens again. Deleted codes
+ * stay in the filter as false positives until the next rebuild every {@code swift.bloom.rebuild-interval}, which
+ * also re-sizes it to the table. Until the first build, and while suspended, every code is passed through to the
+ * database.
+ */
+@Component
+@ConditionalOnProperty(name = "swift.store", havingValue = "jpa", matchIfMissing = true)
+public class SwiftCodeExistenceFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SwiftCodeExistenceFilter.class);
+
+    // a quarter of headroom for codes created before the next rebuild
+    private static final double HEADROOM = 1.25;
+
+    private static final int MINIMUM_CAPACITY = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean enabled;
+
+    private final double falsePositiveRate;
+
+    private final Counter absent;
+
+    private final Counter present;
+
+    private final Counter falsePositives;
+
+    // rebuilds scan the table, sometimes on a request thread; a monitor would pin a virtual thread's carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile SwiftCodeBloomFilter filter;
+
+    // guarded by this: bumped whenever the filter is suspended, so a rebuild that started before cannot swap back in
+    private long generation;
+
+    // guarded by this: imports between their commit and the end of their rebuild
+    private int pendingReloads;
+
+    // guarded by this: whether the bridge is listening, without which codes created elsewhere would be missed
+    private boolean listening;
+
+    // guarded by this: codes added by transactions that have not completed, which a rebuild cannot see yet
+    private final Map<String, Integer> inFlight = new HashMap<>();
+
+    // guarded by this: codes added while a rebuild is reading the table
+    private Set<String> addedDuringRebuild;
+
+    public SwiftCodeExistenceFilter(final JdbcTemplate jdbcTemplate,
+                                    @Value("${swift.bloom.enabled:true}") final boolean enabled,
+                                    @Value("${swift.bloom.false-positive-rate:0.01}") final double falsePositiveRate,
+                                    @Value("${swift.cluster.notify.enabled:true}") final boolean notify,
+                                    final MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled && notify;
+        if (enabled && !notify) {
+            logger.info("The SWIFT code existence filter is off: without swift.cluster.notify.enabled it would "
+                    + "not see codes created by other instances.");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        // absent: answered as not found without a query; present: passed on to the database
+        this.absent = lookupCounter(meterRegistry, "absent");
+        this.present = lookupCounter(meterRegistry, "present");
+        this.falsePositives = Counter.builder("swift.bloom.false.positives")
+                .description("Lookups passed on to the database that found nothing")
+                .register(meterRegistry);
+        Gauge.builder("swift.bloom.expected.false.positive.rate", this, SwiftCodeExistenceFilter::expectedFalsePositiveRate)
+                .description("False-positive rate implied by the share of filter bits set")
+                .register(meterRegistry);
+        Gauge.builder("swift.bloom.codes", this, existence -> existence.filter != null ? existence.filter.puts() : 0)
+                .description("Codes added to the filter since it was built")
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@code false} only if {@code swiftCode} is certainly not in {@code swift_codes}.
+     */
+    public boolean mightExist(final String swiftCode) {
+        final SwiftCodeBloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        if (current.mightContain(swiftCode)) {
+            present.increment();
+            return true;
+        }
+        absent.increment();
+        return false;
+    }
+
+    /**
+     * Called when a code {@link #mightExist} let through was not found, to feed the false-positive metrics.
+     */
+    public void recordFalsePositives(final int count) {
+        if (count > 0 && filter != null) {
+            falsePositives.increment(count);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (filter == null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Suspends the filter while {@link SwiftCodeChangeBridge} is not listening, and rebuilds it once it is.
+     */
+    @EventListener
+    public void onListeningChanged(final SwiftCodeChangeBridge.ListeningChanged event) {
+        synchronized (this) {
+            listening = event.listening();
+            if (!listening) {
+                filter = null;
+                generation++;
+            }
+        }
+        if (event.listening()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${swift.bloom.rebuild-interval:10m}",
+            initialDelayString = "${swift.bloom.rebuild-interval:10m}")
+    public void onRebuildInterval() {
+        rebuild();
+    }
+
+    /**
+     * Adds the changed codes, or suspends the filter for an import, while the writing transaction can still see
+     * them uncommitted; runs right away for writes outside a transaction.
+     */
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public synchronized void beforeCommit(final SwiftCodesChangedEvent event) {
+        if (event.fullReload()) {
+            filter = null;
+            generation++;
+            pendingReloads++;
+            return;
+        }
+        final SwiftCodeBloomFilter current = filter;
+        for (final String swiftCode : event.swiftCodes()) {
+            if (current != null) {
+                current.put(swiftCode);
+            }
+            inFlight.merge(swiftCode, 1, Integer::sum);
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(swiftCode);
+            }
+        }
+    }
+
+    @Order(1)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void afterCompletion(final SwiftCodesChangedEvent event) {
+        synchronized (this) {
+            if (!event.fullReload()) {
+                for (final String swiftCode : event.swiftCodes()) {
+                    inFlight.computeIfPresent(swiftCode, (code, count) -> count > 1 ? count - 1 : null);
+                }
+                return;
+            }
+            pendingReloads--;
+        }
+        rebuild();
+    }
+
+    /**
+     * Reads every code into a new filter sized for the table and swaps it in, unless an import or a lost
+     * listening connection suspended the filter meanwhile.
+     */
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            final long startedGeneration;
+            synchronized (this) {
+                if (pendingReloads > 0 || !listening) {
+                    return;
+                }
+                startedGeneration = generation;
+                addedDuringRebuild = new HashSet<>(inFlight.keySet());
+            }
+            try {
+                final long started = System.nanoTime();
+                final long codes = jdbcTemplate.queryForObject("SELECT count(*) FROM swift_codes", Long.class);
+                final SwiftCodeBloomFilter fresh = SwiftCodeBloomFilter.create(
+                        Math.max(MINIMUM_CAPACITY, (long) (codes * HEADROOM)), falsePositiveRate);
+                jdbcTemplate.query("SELECT swift_code FROM swift_codes", rs -> {
+                    fresh.put(rs.getString(1));
+                });
+                synchronized (this) {
+                    if (generation != startedGeneration || pendingReloads > 0) {
+                        return;
+                    }
+                    addedDuringRebuild.forEach(fresh::put);
+                    filter = fresh;
+                }
+                logger.info("Built the SWIFT code existence filter over {} codes in {} ms.",
+                        fresh.puts(), (System.nanoTime() - started) / 1_000_000);
+            } catch (DataAccessException e) {
+                logger.warn("Could not rebuild the SWIFT code existence filter, keeping the current one: {}",
+                        e.getMessage());
+            } finally {
+                synchronized (this) {
+                    addedDuringRebuild = null;
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private double expectedFalsePositiveRate() {
+        final SwiftCodeBloomFilter current = filter;
+        return current != null ? current.expectedFalsePositiveRate() : 0;
+    }
+
+    private static Counter lookupCounter(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder("swift.bloom.lookups")
+                .description("Lookups checked against the existence filter, by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
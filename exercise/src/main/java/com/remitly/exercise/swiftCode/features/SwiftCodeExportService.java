@@ -0,0 +1,83 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the whole directory through one of the {@link SwiftCodeExporter}s, reading it with a server-side
+ * cursor. The CSV format streams each row on as it arrives; the {@code swft} snapshot holds every row until the
+ * end, because its sections are written sorted and sized up front.
+ */
+@Service
+public class SwiftCodeExportService {
+
+    private static final String SELECT_ALL_SQL = """
+            SELECT swift_code, bank_name, address, countryiso2, country_name, is_headquarter
+            FROM swift_codes
+            ORDER BY swift_code
+            """;
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, SwiftCodeExporter> exporters;
+
+    public SwiftCodeExportService(JdbcTemplate jdbcTemplate, List<SwiftCodeExporter> exporters) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.exporters = exporters.stream()
+                .collect(Collectors.toUnmodifiableMap(SwiftCodeExporter::format, Function.identity()));
+    }
+
+    public Optional<SwiftCodeExporter> exporter(String format) {
+        return Optional.ofNullable(exporters.get(format));
+    }
+
+    public Set<String> formats() {
+        return new TreeSet<>(exporters.keySet());
+    }
+
+    /**
+     * Writes every stored code, ordered by SWIFT code. Runs in a transaction because PostgreSQL only honours the
+     * fetch size with auto-commit off.
+     *
+     * @return the number of rows written
+     */
+    @Transactional
+    public long export(SwiftCodeExporter exporter, OutputStream out) throws IOException {
+        final long[] rows = {0};
+        try (SwiftCodeExporter.RowWriter writer = exporter.open(out)) {
+            jdbcTemplate.query(SELECT_ALL_SQL, rs -> {
+                try {
+                    writer.write(new SwiftCodeSummary(
+                            rs.getString("swift_code"),
+                            rs.getString("bank_name"),
+                            rs.getString("address"),
+                            rs.getString("countryiso2"),
+                            rs.getString("country_name"),
+                            rs.getObject("is_headquarter", Boolean.class)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rows[0];
+    }
+}
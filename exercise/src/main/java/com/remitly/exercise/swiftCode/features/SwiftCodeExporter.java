@@ -0,0 +1,29 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes SWIFT codes in a format that the {@link SwiftCodeImporter} of the same {@link #format()} reads back.
+ */
+public interface SwiftCodeExporter {
+
+    /** File extension of the written format, lower case and without the dot. */
+    String format();
+
+    String contentType();
+
+    /**
+     * Starts writing to {@code out}. Closing the returned writer completes the output but leaves {@code out}
+     * open.
+     */
+    RowWriter open(OutputStream out) throws IOException;
+
+    interface RowWriter extends Closeable {
+
+        void write(SwiftCodeSummary row) throws IOException;
+    }
+}
@@ -0,0 +1,23 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeEntity;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Reads SWIFT codes from a file format other than XLSX, which {@link ExcelParserService} handles itself.
+ * Implementations are picked by {@link #format()}, matched against the file extension.
+ */
+public interface SwiftCodeImporter {
+
+    /** File extension handled by this importer, lower case and without the dot. */
+    String format();
+
+    /**
+     * Streams every row of {@code file} to {@code rows} on the calling thread, in file order. Rows are
+     * converted with the same rules as spreadsheet rows; rows without a SWIFT code are skipped.
+     */
+    void read(Path file, Consumer<SwiftCodeEntity> rows) throws IOException;
+}
@@ -0,0 +1,559 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Immutable, column-oriented index of the whole SWIFT directory.
+ * <p>
+ * Entries are sorted by their packed {@link SwiftCodeKeys key}, so a lookup is a binary search over a
+ * {@code long[]} and all codes sharing an 8-character prefix (a headquarter and its branches) sit next
+ * to each other. Bank names and addresses are pooled strings referenced by {@code int}; countries are
+ * pooled (ISO2, name) pairs. Changes never mutate an index, they produce a new one.
+ */
+public final class SwiftCodeIndex {
+
+    public static final SwiftCodeIndex EMPTY = builder().build();
+
+    private static final int NO_HEADQUARTER = -1;
+
+    private final long[] keys;
+
+    private final int[] bankNames;
+
+    private final int[] addresses;
+
+    private final int[] countries;
+
+    private final int[] headquarters;
+
+    private final boolean[] isHeadquarter;
+
+    private final String[] strings;
+
+    private final String[] countryCodes;
+
+    private final String[] countryNames;
+
+    private final Map<String, int[]> positionsByCountry;
+
+    // pool size past which withChanges rebuilds the index to drop strings no row references any more
+    private final int compactAt;
+
+    private SwiftCodeIndex(long[] keys, int[] bankNames, int[] addresses, int[] countries, int[] headquarters,
+                           boolean[] isHeadquarter, String[] strings, String[] countryCodes, String[] countryNames,
+                           Map<String, int[]> positionsByCountry, int compactAt) {
+        this.keys = keys;
+        this.bankNames = bankNames;
+        this.addresses = addresses;
+        this.countries = countries;
+        this.headquarters = headquarters;
+        this.isHeadquarter = isHeadquarter;
+        this.strings = strings;
+        this.countryCodes = countryCodes;
+        this.countryNames = countryNames;
+        this.positionsByCountry = positionsByCountry;
+        this.compactAt = compactAt;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public boolean contains(final String swiftCode) {
+        return position(swiftCode) >= 0;
+    }
+
+    public Optional<SwiftCodeDTO> findDetailed(final String swiftCode) {
+        final int position = position(swiftCode);
+        if (position < 0) {
+            return Optional.empty();
+        }
+
+        final SwiftCodeDTO.SwiftCodeDTOBuilder builder = dtoBuilder(position);
+        if (isHeadquarter[position] && swiftCode.length() >= SwiftCodeKeys.PREFIX_LENGTH) {
+            final List<SwiftCodeDTO> branches = new ArrayList<>();
+            final String prefix = swiftCode.substring(0, SwiftCodeKeys.PREFIX_LENGTH);
+            final int to = upperBound(SwiftCodeKeys.prefixHigh(prefix));
+            for (int i = lowerBound(SwiftCodeKeys.prefixLow(prefix)); i < to; i++) {
+                if (headquarters[i] == position) {
+                    branches.add(dtoBuilder(i).build());
+                }
+            }
+            if (!branches.isEmpty()) {
+                builder.branches(branches);
+            }
+        }
+        return Optional.of(builder.build());
+    }
+
+    public Optional<SwiftCodeDTO> findBasic(final String swiftCode) {
+        final int position = position(swiftCode);
+        return position < 0 ? Optional.empty() : Optional.of(dtoBuilder(position).build());
+    }
+
+    public boolean containsCountry(final String countryISO2) {
+        return positionsByCountry.containsKey(countryISO2);
+    }
+
+    public List<SwiftCodeSummary> findByCountry(final String countryISO2) {
+        final int[] positions = positionsByCountry.get(countryISO2);
+        return positions == null ? List.of() : summaries(positions, 0, positions.length);
+    }
+
+    /**
+     * Up to {@code limit} codes of the country ordered after {@code after} (exclusive); {@code after} may be
+     * {@code null} for the first page.
+     */
+    public List<SwiftCodeSummary> findPageByCountry(final String countryISO2, final String after, final int limit) {
+        final int[] positions = positionsByCountry.get(countryISO2);
+        if (positions == null) {
+            return List.of();
+        }
+        final int from = after == null ? 0 : firstAfter(positions, after);
+        return summaries(positions, from, (int) Math.min(positions.length, (long) from + limit));
+    }
+
+    public void forEachByCountry(final String countryISO2, final Consumer<SwiftCodeSummary> action) {
+        final int[] positions = positionsByCountry.get(countryISO2);
+        if (positions != null) {
+            for (final int position : positions) {
+                action.accept(summary(position));
+            }
+        }
+    }
+
+    /**
+     * Visits every code in key order.
+     */
+    public void forEach(final Consumer<SwiftCodeSummary> action) {
+        for (int i = 0; i < keys.length; i++) {
+            action.accept(summary(i));
+        }
+    }
+
+    /**
+     * Returns a copy of this index in which every code in {@code changedCodes} is replaced by its row in
+     * {@code currentRows}, or dropped if it has none.
+     * <p>
+     * The sorted changed rows are merged into the columns in one pass; only the position arrays of countries that
+     * lost or gained a code are merged again, the others are renumbered or kept as they are. Strings of the new
+     * rows are appended to the pool, which is compacted by a full rebuild once replaced ones have piled up.
+     */
+    public SwiftCodeIndex withChanges(final Collection<String> changedCodes, final Collection<Row> currentRows) {
+        final TreeMap<Long, Row> byKey = new TreeMap<>();
+        for (final Row row : currentRows) {
+            final long key = SwiftCodeKeys.pack(row.swiftCode());
+            if (key != SwiftCodeKeys.INVALID) {
+                byKey.put(key, row);
+            }
+        }
+        final long[] addedKeys = byKey.keySet().stream().mapToLong(Long::longValue).toArray();
+        final Row[] added = byKey.values().toArray(Row[]::new);
+        final long[] changed = changedCodes.stream().mapToLong(SwiftCodeKeys::pack)
+                .filter(key -> key != SwiftCodeKeys.INVALID).sorted().toArray();
+
+        // merge the keys; renumbered maps every old position to its new one, or -1 if it was replaced or dropped
+        final int[] renumbered = new int[keys.length];
+        final int[] replaced = new int[added.length];
+        final int[] addedPositions = new int[added.length];
+        final long[] mergedKeys = new long[keys.length + added.length];
+        final Set<String> affectedCountries = new HashSet<>();
+        int firstRenumbered = keys.length;
+        int size = 0;
+        for (int o = 0, a = 0, c = 0; o < keys.length || a < added.length; ) {
+            if (a == added.length || o < keys.length && keys[o] < addedKeys[a]) {
+                while (c < changed.length && changed[c] < keys[o]) {
+                    c++;
+                }
+                renumbered[o] = c < changed.length && changed[c] == keys[o] ? -1 : size;
+                if (renumbered[o] < 0) {
+                    affectedCountries.add(countryCodes[countries[o]]);
+                } else {
+                    mergedKeys[size++] = keys[o];
+                }
+                if (renumbered[o] != o) {
+                    firstRenumbered = Math.min(firstRenumbered, o);
+                }
+                o++;
+            } else {
+                replaced[a] = -1;
+                if (o < keys.length && keys[o] == addedKeys[a]) {
+                    replaced[a] = o;
+                    renumbered[o] = -1;
+                    affectedCountries.add(countryCodes[countries[o]]);
+                    firstRenumbered = Math.min(firstRenumbered, o);
+                    o++;
+                }
+                affectedCountries.add(added[a].countryISO2());
+                addedPositions[a] = size;
+                mergedKeys[size++] = addedKeys[a++];
+            }
+        }
+        final long[] newKeys = Arrays.copyOf(mergedKeys, size);
+
+        final int[] newBankNames = new int[size];
+        final int[] newAddresses = new int[size];
+        final int[] newCountries = new int[size];
+        final int[] newHeadquarters = new int[size];
+        final boolean[] newIsHeadquarter = new boolean[size];
+        for (int o = 0; o < keys.length; o++) {
+            final int position = renumbered[o];
+            if (position >= 0) {
+                newBankNames[position] = bankNames[o];
+                newAddresses[position] = addresses[o];
+                newCountries[position] = countries[o];
+                newIsHeadquarter[position] = isHeadquarter[o];
+                final int headquarter = headquarters[o];
+                newHeadquarters[position] = headquarter == NO_HEADQUARTER ? NO_HEADQUARTER
+                        : renumbered[headquarter] >= 0 ? renumbered[headquarter]
+                        : positionIn(newKeys, keys[headquarter]);
+            }
+        }
+
+        final List<String> appendedStrings = new ArrayList<>();
+        final Map<String, Integer> appended = new HashMap<>();
+        final List<String> newCountryCodes = new ArrayList<>(Arrays.asList(countryCodes));
+        final List<String> newCountryNames = new ArrayList<>(Arrays.asList(countryNames));
+        for (int a = 0; a < added.length; a++) {
+            final Row row = added[a];
+            final int position = addedPositions[a];
+            final int headquarter = positionIn(newKeys, SwiftCodeKeys.pack(row.headquarterSwiftCode()));
+            final int replacedPosition = replaced[a];
+            // a changed row usually keeps most of its strings, and a branch those of its headquarter
+            final int headquarterSource = headquarter == NO_HEADQUARTER ? -1 : sourceOf(newKeys[headquarter]);
+            newBankNames[position] = intern(row.bankName(), appended, appendedStrings,
+                    replacedPosition < 0 ? -1 : bankNames[replacedPosition],
+                    headquarterSource < 0 ? -1 : bankNames[headquarterSource]);
+            newAddresses[position] = intern(row.address(), appended, appendedStrings,
+                    replacedPosition < 0 ? -1 : addresses[replacedPosition],
+                    headquarterSource < 0 ? -1 : addresses[headquarterSource]);
+            newCountries[position] = countryReference(row, newCountryCodes, newCountryNames);
+            newIsHeadquarter[position] = row.isHeadquarter();
+            newHeadquarters[position] = headquarter;
+        }
+        final String[] newStrings = Arrays.copyOf(strings, strings.length + appendedStrings.size());
+        for (int i = 0; i < appendedStrings.size(); i++) {
+            newStrings[strings.length + i] = appendedStrings.get(i);
+        }
+
+        final Map<String, int[]> newPositionsByCountry = new HashMap<>(positionsByCountry.size() * 2 + 2);
+        for (final Map.Entry<String, int[]> entry : positionsByCountry.entrySet()) {
+            if (!affectedCountries.contains(entry.getKey())) {
+                newPositionsByCountry.put(entry.getKey(), renumber(entry.getValue(), renumbered, firstRenumbered));
+            }
+        }
+        for (final String country : affectedCountries) {
+            final int[] kept = positionsByCountry.containsKey(country)
+                    ? renumber(positionsByCountry.get(country), renumbered, firstRenumbered) : new int[0];
+            final int[] positions = mergeSorted(kept, addedPositions(country, added, addedPositions));
+            if (positions.length > 0) {
+                newPositionsByCountry.put(country, positions);
+            }
+        }
+
+        final SwiftCodeIndex merged = new SwiftCodeIndex(newKeys, newBankNames, newAddresses, newCountries,
+                newHeadquarters, newIsHeadquarter, newStrings, newCountryCodes.toArray(String[]::new),
+                newCountryNames.toArray(String[]::new), Collections.unmodifiableMap(newPositionsByCountry),
+                compactAt);
+        return newStrings.length > compactAt ? merged.rebuilt() : merged;
+    }
+
+    /** Position of {@code key} in this index, or -1. */
+    private int sourceOf(final long key) {
+        final int position = Arrays.binarySearch(keys, key);
+        return position >= 0 ? position : -1;
+    }
+
+    /**
+     * Reference of {@code value} in the pool extended by {@code appendedStrings}: one of the {@code candidates}
+     * if it holds the same string, otherwise a new entry.
+     */
+    private int intern(final String value, final Map<String, Integer> appended, final List<String> appendedStrings,
+                       final int... candidates) {
+        for (final int candidate : candidates) {
+            if (candidate >= 0 && Objects.equals(strings[candidate], value)) {
+                return candidate;
+            }
+        }
+        return appended.computeIfAbsent(value, v -> {
+            appendedStrings.add(v);
+            return strings.length + appendedStrings.size() - 1;
+        });
+    }
+
+    private static int countryReference(final Row row, final List<String> countryCodes,
+                                        final List<String> countryNames) {
+        for (int i = 0; i < countryCodes.size(); i++) {
+            if (Objects.equals(countryCodes.get(i), row.countryISO2())
+                    && Objects.equals(countryNames.get(i), row.countryName())) {
+                return i;
+            }
+        }
+        countryCodes.add(row.countryISO2());
+        countryNames.add(row.countryName());
+        return countryCodes.size() - 1;
+    }
+
+    private static int[] addedPositions(final String country, final Row[] added, final int[] addedPositions) {
+        int count = 0;
+        final int[] positions = new int[added.length];
+        for (int a = 0; a < added.length; a++) {
+            if (Objects.equals(added[a].countryISO2(), country)) {
+                positions[count++] = addedPositions[a];
+            }
+        }
+        return Arrays.copyOf(positions, count);
+    }
+
+    private static int positionIn(final long[] keys, final long key) {
+        if (key == SwiftCodeKeys.INVALID) {
+            return NO_HEADQUARTER;
+        }
+        final int position = Arrays.binarySearch(keys, key);
+        return position >= 0 ? position : NO_HEADQUARTER;
+    }
+
+    private static int[] renumber(final int[] positions, final int[] renumbered, final int firstRenumbered) {
+        if (positions[positions.length - 1] < firstRenumbered) {
+            return positions;
+        }
+        final int[] result = new int[positions.length];
+        int size = 0;
+        for (final int position : positions) {
+            if (renumbered[position] >= 0) {
+                result[size++] = renumbered[position];
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /** Union of two ascending arrays without common elements. */
+    private static int[] mergeSorted(final int[] a, final int[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        final int[] merged = new int[a.length + b.length];
+        for (int i = 0, j = 0, k = 0; k < merged.length; k++) {
+            merged[k] = j == b.length || i < a.length && a[i] < b[j] ? a[i++] : b[j++];
+        }
+        return merged;
+    }
+
+    /** The same rows with freshly pooled strings. */
+    private SwiftCodeIndex rebuilt() {
+        final Builder builder = builder();
+        for (int i = 0; i < keys.length; i++) {
+            builder.add(row(i));
+        }
+        return builder.build();
+    }
+
+    private int position(final String swiftCode) {
+        final long key = SwiftCodeKeys.pack(swiftCode);
+        if (key == SwiftCodeKeys.INVALID) {
+            return -1;
+        }
+        final int position = Arrays.binarySearch(keys, key);
+        return position >= 0 ? position : -1;
+    }
+
+    private int lowerBound(final long key) {
+        final int position = Arrays.binarySearch(keys, key);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private int upperBound(final long key) {
+        final int position = Arrays.binarySearch(keys, key);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    /** Index into {@code positions} of the first code strictly greater than {@code after}. */
+    private int firstAfter(final int[] positions, final String after) {
+        int low = 0;
+        int high = positions.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (SwiftCodeKeys.unpack(keys[positions[mid]]).compareTo(after) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private List<SwiftCodeSummary> summaries(final int[] positions, final int from, final int to) {
+        final List<SwiftCodeSummary> summaries = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            summaries.add(summary(positions[i]));
+        }
+        return summaries;
+    }
+
+    private SwiftCodeSummary summary(final int position) {
+        return new SwiftCodeSummary(
+                SwiftCodeKeys.unpack(keys[position]),
+                strings[bankNames[position]],
+                strings[addresses[position]],
+                countryCodes[countries[position]],
+                countryNames[countries[position]],
+                isHeadquarter[position]);
+    }
+
+    private SwiftCodeDTO.SwiftCodeDTOBuilder dtoBuilder(final int position) {
+        return SwiftCodeDTO.builder()
+                .swiftCode(SwiftCodeKeys.unpack(keys[position]))
+                .bankName(strings[bankNames[position]])
+                .address(strings[addresses[position]])
+                .countryISO2(countryCodes[countries[position]])
+                .countryName(countryNames[countries[position]])
+                .isHeadquarter(isHeadquarter[position]);
+    }
+
+    private Row row(final int position) {
+        final int headquarter = headquarters[position];
+        return new Row(
+                SwiftCodeKeys.unpack(keys[position]),
+                strings[bankNames[position]],
+                strings[addresses[position]],
+                countryCodes[countries[position]],
+                countryNames[countries[position]],
+                isHeadquarter[position],
+                headquarter == NO_HEADQUARTER ? null : SwiftCodeKeys.unpack(keys[headquarter]));
+    }
+
+    /**
+     * One row of {@code swift_codes} as loaded into the index.
+     */
+    public record Row(
+            String swiftCode,
+            String bankName,
+            String address,
+            String countryISO2,
+            String countryName,
+            boolean isHeadquarter,
+            String headquarterSwiftCode) {
+    }
+
+    /**
+     * Collects rows in any order; {@link #build()} sorts them, keeps the last row per code and skips codes
+     * that cannot be packed.
+     */
+    public static final class Builder {
+
+        private final List<Row> rows = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder add(final Row row) {
+            rows.add(row);
+            return this;
+        }
+
+        public int skipped() {
+            int skipped = 0;
+            for (final Row row : rows) {
+                if (SwiftCodeKeys.pack(row.swiftCode()) == SwiftCodeKeys.INVALID) {
+                    skipped++;
+                }
+            }
+            return skipped;
+        }
+
+        public SwiftCodeIndex build() {
+            final Map<Long, Row> byKey = new HashMap<>(rows.size() * 2);
+            for (final Row row : rows) {
+                final long key = SwiftCodeKeys.pack(row.swiftCode());
+                if (key != SwiftCodeKeys.INVALID) {
+                    byKey.put(key, row);
+                }
+            }
+
+            final int size = byKey.size();
+            final long[] keys = new long[size];
+            int n = 0;
+            for (final Long key : byKey.keySet()) {
+                keys[n++] = key;
+            }
+            Arrays.sort(keys);
+
+            final int[] bankNames = new int[size];
+            final int[] addresses = new int[size];
+            final int[] countries = new int[size];
+            final int[] headquarters = new int[size];
+            final boolean[] isHeadquarter = new boolean[size];
+            final Pool strings = new Pool();
+            final Pool countryPairs = new Pool();
+            final List<String> countryCodes = new ArrayList<>();
+            final List<String> countryNames = new ArrayList<>();
+            final Map<String, List<Integer>> countryPositions = new HashMap<>();
+
+            for (int i = 0; i < size; i++) {
+                final Row row = byKey.get(keys[i]);
+                bankNames[i] = strings.intern(row.bankName());
+                addresses[i] = strings.intern(row.address());
+                final int countryRef = countryPairs.intern(row.countryISO2() + '\u0000' + row.countryName());
+                if (countryRef == countryCodes.size()) {
+                    countryCodes.add(row.countryISO2());
+                    countryNames.add(row.countryName());
+                }
+                countries[i] = countryRef;
+                isHeadquarter[i] = row.isHeadquarter();
+                final long headquarterKey = SwiftCodeKeys.pack(row.headquarterSwiftCode());
+                final int headquarter = headquarterKey == SwiftCodeKeys.INVALID ? -1 : Arrays.binarySearch(keys, headquarterKey);
+                headquarters[i] = headquarter >= 0 ? headquarter : NO_HEADQUARTER;
+                countryPositions.computeIfAbsent(row.countryISO2(), c -> new ArrayList<>()).add(i);
+            }
+
+            final Map<String, int[]> positionsByCountry = new HashMap<>(countryPositions.size() * 2);
+            countryPositions.forEach((country, positions) ->
+                    positionsByCountry.put(country, positions.stream().mapToInt(Integer::intValue).toArray()));
+
+            final String[] pooled = strings.toArray();
+            return new SwiftCodeIndex(keys, bankNames, addresses, countries, headquarters, isHeadquarter,
+                    pooled, countryCodes.toArray(String[]::new), countryNames.toArray(String[]::new),
+                    Collections.unmodifiableMap(positionsByCountry), 2 * pooled.length + size / 4 + 64);
+        }
+    }
+
+    /**
+     * Assigns each distinct string (including {@code null}) a dense int reference.
+     */
+    private static final class Pool {
+
+        private final Map<String, Integer> references = new HashMap<>();
+
+        private final List<String> values = new ArrayList<>();
+
+        int intern(final String value) {
+            return references.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        String[] toArray() {
+            return values.toArray(String[]::new);
+        }
+    }
+}
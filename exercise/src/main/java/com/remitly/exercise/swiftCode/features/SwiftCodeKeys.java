@@ -0,0 +1,78 @@
+package com.remitly.exercise.swiftCode.features;
+
+/**
+ * Packs SWIFT codes of up to 11 characters from {@code [0-9A-Z]} into a single {@code long}.
+ * <p>
+ * Each character is a base-37 digit where 0 is padding, digits map to 1-10 and letters to 11-36, so
+ * 37^11 fits in 63 bits and comparing packed keys gives the same order as comparing the strings.
+ * An 8-character code packs to the smallest key of its 11-character family.
+ */
+public final class SwiftCodeKeys {
+
+    public static final int MAX_LENGTH = 11;
+
+    public static final int PREFIX_LENGTH = 8;
+
+    /** Returned by {@link #pack(String)} for strings that cannot be packed. */
+    public static final long INVALID = -1L;
+
+    private static final int RADIX = 37;
+
+    /** Index 0 is padding and never emitted. */
+    private static final char[] ALPHABET = " 0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private SwiftCodeKeys() {
+    }
+
+    public static long pack(final String code) {
+        if (code == null || code.isEmpty() || code.length() > MAX_LENGTH) {
+            return INVALID;
+        }
+        long key = 0;
+        for (int i = 0; i < MAX_LENGTH; i++) {
+            int digit = 0;
+            if (i < code.length()) {
+                digit = digit(code.charAt(i));
+                if (digit < 0) {
+                    return INVALID;
+                }
+            }
+            key = key * RADIX + digit;
+        }
+        return key;
+    }
+
+    public static String unpack(long key) {
+        final char[] chars = new char[MAX_LENGTH];
+        int length = MAX_LENGTH;
+        for (int i = MAX_LENGTH - 1; i >= 0; i--) {
+            final int digit = (int) (key % RADIX);
+            key /= RADIX;
+            chars[i] = ALPHABET[digit];
+            if (digit == 0) {
+                length = i;
+            }
+        }
+        return new String(chars, 0, length);
+    }
+
+    /** Smallest key starting with the 8-character {@code prefix}, or {@link #INVALID}. */
+    public static long prefixLow(final String prefix) {
+        return prefix.length() == PREFIX_LENGTH ? pack(prefix) : INVALID;
+    }
+
+    /** Largest key starting with the 8-character {@code prefix}, or {@link #INVALID}. */
+    public static long prefixHigh(final String prefix) {
+        return prefix.length() == PREFIX_LENGTH ? pack(prefix + "ZZZ") : INVALID;
+    }
+
+    private static int digit(final char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 1;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 11;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,87 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodesChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of detailed {@link SwiftCodeDTO}s keyed by SWIFT code. Entries are evicted
+ * once the writing transaction commits, so a concurrent miss can never re-insert the pre-commit view: a
+ * single-key load and the eviction of that key are atomic with each other, and batch loads are not cached.
+ */
+@Component
+public class SwiftCodeLookupCache {
+
+    private final Cache<String, SwiftCodeDTO> cache;
+
+    public SwiftCodeLookupCache(@Value("${swift.cache.lookup.maximum-size:10000}") long maximumSize,
+                                @Value("${swift.cache.lookup.expire-after-write:10m}") Duration expireAfterWrite,
+                                MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "swiftCodeLookup");
+    }
+
+    /**
+     * Returns the cached DTO or computes it with {@code loader}; a loader returning {@code null} is a miss
+     * that is not cached.
+     */
+    public Optional<SwiftCodeDTO> get(String swiftCode, Function<String, SwiftCodeDTO> loader) {
+        return Optional.ofNullable(cache.get(swiftCode, loader));
+    }
+
+    /**
+     * Returns the cached DTOs of {@code swiftCodes} and loads all missing ones with a single call to
+     * {@code loader}; codes the loader leaves out are absent from the result.
+     * <p>
+     * Loaded DTOs are returned but not cached. Caffeine puts the results of a bulk load after the loader returns,
+     * not atomically with it, so a load that read rows before a write committed could put them back after the
+     * commit evicted them.
+     */
+    public Map<String, SwiftCodeDTO> getAll(Collection<String> swiftCodes,
+                                            Function<Set<String>, Map<String, SwiftCodeDTO>> loader) {
+        final Map<String, SwiftCodeDTO> present = cache.getAllPresent(swiftCodes);
+        final Set<String> missing = new HashSet<>(swiftCodes);
+        missing.removeAll(present.keySet());
+        if (missing.isEmpty()) {
+            return present;
+        }
+        final Map<String, SwiftCodeDTO> found = new HashMap<>(present);
+        found.putAll(loader.apply(missing));
+        return found;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // before SwiftDatasetVersion moves the ETag on
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSwiftCodesChanged(SwiftCodesChangedEvent event) {
+        if (event.fullReload()) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidateAll(event.swiftCodes());
+        }
+    }
+}
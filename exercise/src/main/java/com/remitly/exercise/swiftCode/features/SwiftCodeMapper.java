@@ -0,0 +1,65 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodeEntity;
+import com.remitly.exercise.swiftCode.core.SwiftCodeRequest;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class SwiftCodeMapper {
+
+    private SwiftCodeMapper() {
+    }
+
+    /**
+     * A new entity from a create request: names and addresses trimmed, country fields upper-cased and codes
+     * ending in {@code XXX} marked as headquarters. The headquarter link is left to the caller.
+     */
+    public static SwiftCodeEntity toEntity(final SwiftCodeRequest request) {
+        final String swiftCode = request.getSwiftCode();
+        return SwiftCodeEntity.builder()
+                .swiftCode(swiftCode)
+                .bankName(request.getBankName().trim())
+                .address(request.getAddress().trim())
+                .countryISO2(request.getCountryISO2().toUpperCase())
+                .countryName(request.getCountryName().toUpperCase())
+                .isHeadquarter(swiftCode.endsWith("XXX"))
+                .build();
+    }
+
+    public static SwiftCodeDTO toDetailedDTO(final SwiftCodeEntity entity) {
+        final SwiftCodeDTO.SwiftCodeDTOBuilder builder = SwiftCodeDTO.builder()
+                .swiftCode(entity.getSwiftCode())
+                .bankName(entity.getBankName())
+                .address(entity.getAddress())
+                .countryISO2(entity.getCountryISO2())
+                .countryName(entity.getCountryName())
+                .isHeadquarter(entity.getIsHeadquarter());
+
+        if (entity.getIsHeadquarter() && entity.getBranches() != null && !entity.getBranches().isEmpty()) {
+            final List<SwiftCodeDTO> branchDTOs = entity.getBranches().stream()
+                    .map(SwiftCodeMapper::toDetailedDTO)
+                    .collect(Collectors.toList());
+            builder.branches(branchDTOs);
+        }
+        return builder.build();
+    }
+
+    public static SwiftCodeSummary toSummary(final SwiftCodeDTO dto) {
+        return new SwiftCodeSummary(dto.getSwiftCode(), dto.getBankName(), dto.getAddress(), dto.getCountryISO2(),
+                dto.getCountryName(), dto.isHeadquarter());
+    }
+
+    public static SwiftCodeDTO toBasicDTO(final SwiftCodeSummary summary) {
+        return SwiftCodeDTO.builder()
+                .swiftCode(summary.swiftCode())
+                .bankName(summary.bankName())
+                .address(summary.address())
+                .countryISO2(summary.countryISO2())
+                .countryName(summary.countryName())
+                .isHeadquarter(summary.isHeadquarter())
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Serves the read endpoints. The implementation is chosen with {@code swift.store}: {@code jpa} (default)
+ * reads PostgreSQL through {@link com.remitly.exercise.swiftCode.core.SwiftCodeRepository}, {@code memory}
+ * answers from an in-process {@link SwiftCodeIndex}, {@code snapshot} from a memory-mapped
+ * {@link SwiftCodeSnapshot} file. Writes always go to PostgreSQL.
+ */
+public interface SwiftCodeReadStore {
+
+    Optional<SwiftCodeDTO> findDetailed(String swiftCode);
+
+    /**
+     * Resolves many codes at once, keyed by SWIFT code; codes that do not exist are absent. With
+     * {@code includeBranches} headquarters carry their branches as in {@link #findDetailed(String)}, otherwise
+     * every code is returned in the basic view.
+     */
+    Map<String, SwiftCodeDTO> findAll(Collection<String> swiftCodes, boolean includeBranches);
+
+    boolean existsByCountry(String countryISO2);
+
+    List<SwiftCodeSummary> findByCountry(String countryISO2);
+
+    /**
+     * Up to {@code limit} codes of the country ordered by SWIFT code after {@code after} (exclusive);
+     * {@code after} may be {@code null} for the first page.
+     */
+    List<SwiftCodeSummary> findPageByCountry(String countryISO2, String after, int limit);
+
+    /**
+     * Visits every code of the country in SWIFT code order without materializing them as a list.
+     */
+    void forEachByCountry(String countryISO2, Consumer<SwiftCodeSummary> action);
+
+    /**
+     * Visits every code in SWIFT code order without materializing them as a list.
+     */
+    void forEach(Consumer<SwiftCodeSummary> action);
+}
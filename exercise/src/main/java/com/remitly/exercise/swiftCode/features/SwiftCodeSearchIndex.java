@@ -0,0 +1,546 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable type-ahead index over SWIFT codes and the words of bank names and towns.
+ * <p>
+ * Codes and words are kept as sorted arrays, so all entries sharing a prefix form one contiguous range; for a
+ * word the range leads to posting lists of row numbers. Next to each array the index keeps how many characters
+ * every entry shares with the previous one, which makes the array a flattened trie. Fuzzy matching walks it
+ * extending one Levenshtein row per character, reusing the rows of the shared prefix, and skips a whole subtree
+ * as soon as no extension of its prefix can stay within the allowed edits. Only entries sharing the query's first
+ * character are walked. A query matches an entry if some prefix of the entry is within that distance, so a typo
+ * does not break type-ahead.
+ * <p>
+ * Words are normalized to lower case without diacritics. The town is the part of the address after its last
+ * comma, which is where the import puts it.
+ */
+public final class SwiftCodeSearchIndex {
+
+    public static final SwiftCodeSearchIndex EMPTY = build(List.of());
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern CODE_QUERY = Pattern.compile("[A-Z0-9]{1,11}");
+
+    private static final int EXACT_CODE = 100;
+
+    private static final int CODE_PREFIX = 50;
+
+    private static final int FUZZY_CODE = 20;
+
+    private static final int EXACT_WORD = 6;
+
+    private static final int WORD_PREFIX = 4;
+
+    private static final int FUZZY_WORD = 3;
+
+    private final SwiftCodeSummary[] rows;
+
+    private final String[] codes;
+
+    private final int[] codePrefixes;
+
+    private final String[] words;
+
+    private final int[] wordPrefixes;
+
+    private final int[][] postings;
+
+    private final int maxWordLength;
+
+    private SwiftCodeSearchIndex(final SwiftCodeSummary[] rows, final String[] codes, final int[] codePrefixes,
+                                 final String[] words, final int[] wordPrefixes, final int[][] postings,
+                                 final int maxWordLength) {
+        this.rows = rows;
+        this.codes = codes;
+        this.codePrefixes = codePrefixes;
+        this.words = words;
+        this.wordPrefixes = wordPrefixes;
+        this.postings = postings;
+        this.maxWordLength = maxWordLength;
+    }
+
+    /**
+     * Indexes {@code summaries}; a later row with the same SWIFT code replaces an earlier one.
+     */
+    public static SwiftCodeSearchIndex build(final Collection<SwiftCodeSummary> summaries) {
+        final TreeMap<String, SwiftCodeSummary> byCode = new TreeMap<>();
+        for (final SwiftCodeSummary summary : summaries) {
+            if (summary.swiftCode() != null) {
+                byCode.put(summary.swiftCode(), summary);
+            }
+        }
+        final SwiftCodeSummary[] rows = byCode.values().toArray(SwiftCodeSummary[]::new);
+
+        final TreeMap<String, List<Integer>> rowsByWord = new TreeMap<>();
+        for (int row = 0; row < rows.length; row++) {
+            for (final String word : words(rows[row])) {
+                rowsByWord.computeIfAbsent(word, w -> new ArrayList<>()).add(row);
+            }
+        }
+        final String[] codes = byCode.keySet().toArray(String[]::new);
+        final String[] words = rowsByWord.keySet().toArray(String[]::new);
+        final int[][] postings = rowsByWord.values().stream()
+                .map(SwiftCodeSearchIndex::toArray)
+                .toArray(int[][]::new);
+        return new SwiftCodeSearchIndex(rows, codes, sharedPrefixes(codes, null, null), words,
+                sharedPrefixes(words, null, null), postings, Math.max(maxLength(codes), maxLength(words)));
+    }
+
+    /**
+     * A copy in which {@code changedCodes} are replaced by {@code currentRows}; codes missing from
+     * {@code currentRows} were deleted.
+     * <p>
+     * Only the current rows are tokenized. They are merged into the sorted code and word arrays, and the other
+     * rows' posting lists are renumbered through an int mapping, or reused as they are below the first changed
+     * row. Shared prefixes are copied wherever two entries stay neighbours. A change therefore costs a few linear
+     * passes over plain arrays, with no normalizing, sorting or boxing of the unchanged rows.
+     */
+    public SwiftCodeSearchIndex withChanges(final Collection<String> changedCodes,
+                                            final Collection<SwiftCodeSummary> currentRows) {
+        final Set<String> changed = new HashSet<>(changedCodes);
+        final TreeMap<String, SwiftCodeSummary> byCode = new TreeMap<>();
+        for (final SwiftCodeSummary row : currentRows) {
+            if (row.swiftCode() != null) {
+                byCode.put(row.swiftCode(), row);
+                changed.add(row.swiftCode());
+            }
+        }
+        final SwiftCodeSummary[] added = byCode.values().toArray(SwiftCodeSummary[]::new);
+
+        // merge the rows by code; renumbered maps every old row to its new number, or -1 if it was replaced
+        final SwiftCodeSummary[] mergedRows = new SwiftCodeSummary[rows.length + added.length];
+        final int[] codeSources = new int[mergedRows.length];
+        final int[] renumbered = new int[rows.length];
+        final int[] addedRows = new int[added.length];
+        int firstRenumbered = rows.length;
+        int size = 0;
+        for (int o = 0, a = 0; o < rows.length || a < added.length; ) {
+            if (a == added.length || o < rows.length && codes[o].compareTo(added[a].swiftCode()) < 0) {
+                renumbered[o] = changed.contains(codes[o]) ? -1 : size;
+                if (renumbered[o] != o) {
+                    firstRenumbered = Math.min(firstRenumbered, o);
+                }
+                if (renumbered[o] >= 0) {
+                    codeSources[size] = o;
+                    mergedRows[size++] = rows[o];
+                }
+                o++;
+            } else {
+                if (o < rows.length && codes[o].equals(added[a].swiftCode())) {
+                    renumbered[o] = -1;
+                    firstRenumbered = Math.min(firstRenumbered, o);
+                    o++;
+                }
+                addedRows[a] = size;
+                codeSources[size] = -1;
+                mergedRows[size++] = added[a++];
+            }
+        }
+        final SwiftCodeSummary[] newRows = Arrays.copyOf(mergedRows, size);
+        final String[] newCodes = new String[size];
+        for (int i = 0; i < size; i++) {
+            newCodes[i] = newRows[i].swiftCode();
+        }
+
+        final TreeMap<String, List<Integer>> addedWords = new TreeMap<>();
+        for (int a = 0; a < added.length; a++) {
+            for (final String word : words(added[a])) {
+                addedWords.computeIfAbsent(word, w -> new ArrayList<>()).add(addedRows[a]);
+            }
+        }
+
+        // merge the words; a word whose rows were all replaced or deleted drops out
+        final List<String> newWords = new ArrayList<>(words.length + addedWords.size());
+        final List<int[]> newPostings = new ArrayList<>(words.length + addedWords.size());
+        final int[] wordSources = new int[words.length + addedWords.size()];
+        final Iterator<Map.Entry<String, List<Integer>>> addedWordIterator = addedWords.entrySet().iterator();
+        Map.Entry<String, List<Integer>> addedWord = addedWordIterator.hasNext() ? addedWordIterator.next() : null;
+        for (int w = 0; w < words.length || addedWord != null; ) {
+            final int order = w == words.length ? 1 : addedWord == null ? -1 : words[w].compareTo(addedWord.getKey());
+            int[] posting = order <= 0 ? renumber(postings[w], renumbered, firstRenumbered) : new int[0];
+            if (order >= 0) {
+                posting = mergeSorted(posting, toArray(addedWord.getValue()));
+            }
+            if (posting.length > 0) {
+                wordSources[newWords.size()] = order <= 0 ? w : -1;
+                newWords.add(order <= 0 ? words[w] : addedWord.getKey());
+                newPostings.add(posting);
+            }
+            if (order <= 0) {
+                w++;
+            }
+            if (order >= 0) {
+                addedWord = addedWordIterator.hasNext() ? addedWordIterator.next() : null;
+            }
+        }
+        final String[] mergedWords = newWords.toArray(String[]::new);
+
+        // an upper bound is enough, it only sizes the walk's distance rows
+        int longest = maxWordLength;
+        for (final SwiftCodeSummary row : added) {
+            longest = Math.max(longest, row.swiftCode().length());
+        }
+        longest = Math.max(longest, maxLength(addedWords.keySet().toArray(String[]::new)));
+
+        return new SwiftCodeSearchIndex(newRows, newCodes, sharedPrefixes(newCodes, codeSources, codePrefixes),
+                mergedWords, sharedPrefixes(mergedWords, wordSources, wordPrefixes),
+                newPostings.toArray(int[][]::new), longest);
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    /**
+     * Up to {@code limit} rows matching {@code query}, best first. The whole query is matched against SWIFT
+     * codes (case-insensitive, spaces ignored); separately every word of it must match a word of the bank name or
+     * town, where the last word may be incomplete. With {@code maxEdits} above zero, words of four or more
+     * characters may be one edit away and words of seven or more two, up to {@code maxEdits}, after a first
+     * character that matches exactly. Exact matches rank
+     * above prefix matches, which rank above fuzzy ones; ties are ordered by SWIFT code.
+     */
+    public List<SwiftCodeSummary> search(final String query, final int limit, final int maxEdits) {
+        if (query == null || query.isBlank() || limit < 1) {
+            return List.of();
+        }
+        final Scores scores = matchWords(new ArrayList<>(new LinkedHashSet<>(normalize(query))), maxEdits);
+        final String code = WHITESPACE.matcher(query).replaceAll("").toUpperCase(Locale.ROOT);
+        if (CODE_QUERY.matcher(code).matches()) {
+            matchCodes(code, allowedEdits(code, maxEdits), scores);
+        }
+        return best(scores, limit);
+    }
+
+    /**
+     * The {@code limit} best scoring rows, ties in row (SWIFT code) order. A histogram of the scores gives the
+     * lowest score that still makes the cut, so only the rows at or above it are sorted.
+     */
+    private List<SwiftCodeSummary> best(final Scores scores, final int limit) {
+        int maxScore = 0;
+        for (int i = 0; i < scores.size; i++) {
+            maxScore = Math.max(maxScore, scores.values[scores.touched[i]]);
+        }
+        if (maxScore == 0) {
+            return List.of();
+        }
+        final int[] histogram = new int[maxScore + 1];
+        for (int i = 0; i < scores.size; i++) {
+            histogram[scores.values[scores.touched[i]]]++;
+        }
+        int threshold = maxScore;
+        int above = 0;
+        while (threshold > 1 && above + histogram[threshold] < limit) {
+            above += histogram[threshold];
+            threshold--;
+        }
+
+        final List<Integer> selected = new ArrayList<>(above + histogram[threshold]);
+        for (int i = 0; i < scores.size; i++) {
+            if (scores.values[scores.touched[i]] >= threshold) {
+                selected.add(scores.touched[i]);
+            }
+        }
+        selected.sort(Comparator.comparingInt((Integer row) -> -scores.values[row]).thenComparingInt(row -> row));
+        return selected.stream().limit(limit).map(row -> rows[row]).toList();
+    }
+
+    private void matchCodes(final String code, final int edits, final Scores scores) {
+        walk(codes, codePrefixes, code, edits, (position, distance) -> scores.raise(position,
+                codes[position].equals(code) ? EXACT_CODE
+                        : distance == 0 ? CODE_PREFIX
+                        : FUZZY_CODE - distance));
+    }
+
+    /**
+     * Per row the sum of each query word's best score, for the rows every query word matches.
+     */
+    private Scores matchWords(final List<String> queryWords, final int maxEdits) {
+        Scores matched = null;
+        for (final String queryWord : queryWords) {
+            final Scores wordScores = new Scores(rows.length);
+            walk(words, wordPrefixes, queryWord, allowedEdits(queryWord, maxEdits), (position, distance) -> {
+                final int score = words[position].equals(queryWord) ? EXACT_WORD
+                        : distance == 0 ? WORD_PREFIX
+                        : FUZZY_WORD - distance;
+                for (final int row : postings[position]) {
+                    wordScores.raise(row, score);
+                }
+            });
+            if (matched == null) {
+                matched = wordScores;
+            } else {
+                matched.retainAdding(wordScores);
+            }
+            if (matched.size == 0) {
+                break;
+            }
+        }
+        return matched == null ? new Scores(rows.length) : matched;
+    }
+
+    /**
+     * Calls {@code onMatch} with every entry of the sorted {@code entries} that starts with the first character of
+     * {@code query} and has a prefix within {@code edits} of it, and the smallest such distance. {@code shared}
+     * holds the {@link #sharedPrefixes} of {@code entries}.
+     */
+    private void walk(final String[] entries, final int[] shared, final String query, final int edits,
+                      final MatchConsumer onMatch) {
+        final int m = query.length();
+        if (edits == 0) {
+            for (int i = lowerBound(entries, query); i < entries.length && entries[i].startsWith(query); i++) {
+                onMatch.accept(i, 0);
+            }
+            return;
+        }
+
+        // distances[d] is the Levenshtein row of query against the first d characters of the current entry,
+        // best[d] the smallest distance of query to any of those prefixes of length up to d
+        final int[][] distances = new int[maxWordLength + 1][m + 1];
+        final int[] best = new int[maxWordLength + 1];
+        for (int j = 0; j <= m; j++) {
+            distances[0][j] = j;
+        }
+        best[0] = m;
+        // edits start after the first character, as people rarely mistype that one; it keeps the walk to one block
+        int i = lowerBound(entries, query.substring(0, 1));
+        final int end = endOfPrefix(entries, query, 1, i);
+        int valid = 0;
+        while (i < end) {
+            final String entry = entries[i];
+            int depth = Math.min(valid, shared[i]);
+            boolean pruned = false;
+            while (depth < entry.length()) {
+                final int[] above = distances[depth];
+                final int[] row = distances[depth + 1];
+                final char c = entry.charAt(depth);
+                row[0] = above[0] + 1;
+                int rowMin = row[0];
+                for (int j = 1; j <= m; j++) {
+                    final int cost = query.charAt(j - 1) == c ? 0 : 1;
+                    row[j] = Math.min(Math.min(row[j - 1] + 1, above[j] + 1), above[j - 1] + cost);
+                    rowMin = Math.min(rowMin, row[j]);
+                }
+                depth++;
+                best[depth] = Math.min(best[depth - 1], row[m]);
+                if (rowMin > edits && best[depth] > edits) {
+                    pruned = true;
+                    break;
+                }
+            }
+            valid = depth;
+            if (pruned) {
+                // nothing that starts with these characters can match any more; the next entry that does not
+                // shares fewer characters with this one than its predecessor in the range did
+                i++;
+                while (i < end && shared[i] >= depth) {
+                    i++;
+                }
+                continue;
+            }
+            if (best[depth] <= edits) {
+                onMatch.accept(i, best[depth]);
+            }
+            i++;
+        }
+    }
+
+    /**
+     * No edits below four characters, where one typo already matches too much; one up to six; two from seven.
+     */
+    private static int allowedEdits(final String query, final int maxEdits) {
+        final int length = query.length();
+        return Math.min(maxEdits, length < 4 ? 0 : length < 7 ? 1 : 2);
+    }
+
+    private static int commonPrefix(final String a, final String b) {
+        final int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /** First entry not below {@code key}. */
+    private static int lowerBound(final String[] entries, final String key) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (entries[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First entry after {@code from} that does not start with the first {@code length} characters of
+     * {@code entry}; the entries from {@code from} that do are contiguous.
+     */
+    private static int endOfPrefix(final String[] entries, final String entry, final int length, final int from) {
+        int low = from;
+        int high = entries.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (entries[mid].regionMatches(0, entry, 0, length)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * For each sorted entry the number of leading characters it shares with the previous one: the trie structure
+     * of the array, which lets a walk skip a subtree by scanning ints instead of comparing strings. If
+     * {@code sources} is given, it holds each entry's position in an older array whose shared prefixes are
+     * {@code oldShared}, or -1; entries that were neighbours there too reuse the old value.
+     */
+    private static int[] sharedPrefixes(final String[] entries, final int[] sources, final int[] oldShared) {
+        final int[] shared = new int[entries.length];
+        for (int i = 1; i < entries.length; i++) {
+            shared[i] = sources != null && sources[i] > 0 && sources[i - 1] == sources[i] - 1
+                    ? oldShared[sources[i]]
+                    : commonPrefix(entries[i - 1], entries[i]);
+        }
+        return shared;
+    }
+
+    /**
+     * {@code posting} with every row mapped through {@code renumbered}, dropping rows mapped to -1; the mapping
+     * keeps the order. Lists that end before {@code firstRenumbered} are unchanged and returned as they are.
+     */
+    private static int[] renumber(final int[] posting, final int[] renumbered, final int firstRenumbered) {
+        if (posting[posting.length - 1] < firstRenumbered) {
+            return posting;
+        }
+        final int[] result = new int[posting.length];
+        int size = 0;
+        for (final int row : posting) {
+            if (renumbered[row] >= 0) {
+                result[size++] = renumbered[row];
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /** Union of two ascending arrays without common elements. */
+    private static int[] mergeSorted(final int[] a, final int[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        final int[] merged = new int[a.length + b.length];
+        for (int i = 0, j = 0, k = 0; k < merged.length; k++) {
+            merged[k] = j == b.length || i < a.length && a[i] < b[j] ? a[i++] : b[j++];
+        }
+        return merged;
+    }
+
+    private static int[] toArray(final List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int maxLength(final String[] entries) {
+        int max = 0;
+        for (final String entry : entries) {
+            max = Math.max(max, entry.length());
+        }
+        return max;
+    }
+
+    private static Set<String> words(final SwiftCodeSummary row) {
+        final Set<String> words = new LinkedHashSet<>(normalize(row.bankName()));
+        final String address = row.address();
+        if (address != null && address.lastIndexOf(',') >= 0) {
+            words.addAll(normalize(address.substring(address.lastIndexOf(',') + 1)));
+        }
+        return words;
+    }
+
+    static List<String> normalize(final String text) {
+        if (text == null) {
+            return List.of();
+        }
+        final String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(NON_WORD.split(folded))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Scores by row that remember which rows they gave a score, so that a query costs in proportion to its matches
+     * rather than to the size of the index.
+     */
+    private static final class Scores {
+
+        private final int[] values;
+
+        private int[] touched = new int[16];
+
+        private int size;
+
+        private Scores(final int rows) {
+            this.values = new int[rows];
+        }
+
+        private void raise(final int row, final int score) {
+            if (values[row] == 0) {
+                if (size == touched.length) {
+                    touched = Arrays.copyOf(touched, size * 2);
+                }
+                touched[size++] = row;
+            }
+            values[row] = Math.max(values[row], score);
+        }
+
+        /**
+         * Keeps only the rows {@code other} scored too, adding its scores to them.
+         */
+        private void retainAdding(final Scores other) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                final int row = touched[i];
+                if (other.values[row] > 0) {
+                    values[row] += other.values[row];
+                    touched[kept++] = row;
+                } else {
+                    values[row] = 0;
+                }
+            }
+            size = kept;
+        }
+    }
+
+    @FunctionalInterface
+    private interface MatchConsumer {
+
+        void accept(int position, int distance);
+    }
+}
@@ -0,0 +1,121 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import com.remitly.exercise.swiftCode.core.SwiftCodesChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Answers {@code GET /v1/swift-codes/search} from an in-memory {@link SwiftCodeSearchIndex} built from the active
+ * {@link SwiftCodeReadStore}, so it searches the data the other read endpoints serve and only reaches PostgreSQL
+ * when {@code swift.store=jpa}. The index is built at startup and after each import; other committed writes read
+ * only the affected codes back from the store and swap in a copy with them merged in (see
+ * {@link SwiftCodeSearchIndex#withChanges}). The {@link SnapshotSwiftCodeReadStore} applies changes in the
+ * background, so with it the index follows its swaps instead of the commits.
+ */
+@Service
+public class SwiftCodeSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SwiftCodeSearchService.class);
+
+    private final SwiftCodeReadStore readStore;
+
+    private final boolean followsSnapshots;
+
+    // held while reading the store, so a lock rather than a monitor, which would pin a virtual thread's carrier
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private final int maxEdits;
+
+    private volatile SwiftCodeSearchIndex index = SwiftCodeSearchIndex.EMPTY;
+
+    private volatile boolean loaded;
+
+    public SwiftCodeSearchService(final SwiftCodeReadStore readStore,
+                                  final ObjectProvider<SnapshotSwiftCodeReadStore> snapshotStore,
+                                  @Value("${swift.search.max-edits:2}") final int maxEdits) {
+        this.readStore = readStore;
+        this.followsSnapshots = snapshotStore.getIfAvailable() != null;
+        this.maxEdits = maxEdits;
+    }
+
+    /**
+     * See {@link SwiftCodeSearchIndex#search}; {@code fuzzy = false} only matches exact words and prefixes.
+     */
+    public List<SwiftCodeSummary> search(final String query, final int limit, final boolean fuzzy) {
+        return index.search(query, limit, fuzzy ? maxEdits : 0);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    // after the in-memory store has loaded what it serves
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    // after the read stores have applied the change
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSwiftCodesChanged(final SwiftCodesChangedEvent event) {
+        if (!followsSnapshots) {
+            apply(event.swiftCodes(), event.fullReload());
+        }
+    }
+
+    @EventListener
+    public void onSnapshotSwapped(final SnapshotSwiftCodeReadStore.Swapped event) {
+        apply(event.swiftCodes(), event.fullReload());
+    }
+
+    public void reload() {
+        updateLock.lock();
+        try {
+            final long start = System.nanoTime();
+            final List<SwiftCodeSummary> rows = new ArrayList<>();
+            readStore.forEach(rows::add);
+            index = SwiftCodeSearchIndex.build(rows);
+            loaded = true;
+            logger.info("Indexed {} SWIFT codes for search in {} ms.",
+                    index.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void apply(final Set<String> swiftCodes, final boolean fullReload) {
+        if (fullReload) {
+            reload();
+            return;
+        }
+        if (swiftCodes.isEmpty()) {
+            return;
+        }
+        updateLock.lock();
+        try {
+            final List<SwiftCodeSummary> rows = readStore.findAll(swiftCodes, false).values().stream()
+                    .map(SwiftCodeMapper::toSummary)
+                    .toList();
+            index = index.withChanges(swiftCodes, rows);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+}
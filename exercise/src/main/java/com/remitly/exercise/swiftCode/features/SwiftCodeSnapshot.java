@@ -0,0 +1,307 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Read-only view of a snapshot file written by {@link SnapshotSwiftCodeFormat}, queried in place through a
+ * memory mapping: the rows stay in the OS page cache and nothing but the small country directory is copied to
+ * the heap.
+ * <p>
+ * Layout (big-endian):
+ * <ul>
+ *     <li>header: magic {@code "SWFT"}, version, reserved short, row count, country count;</li>
+ *     <li>rows sorted by their packed {@link SwiftCodeKeys key}, each {@value #ROW_SIZE} bytes: the key, the
+ *     string offsets of bank name, address and country name, the country entry and a flag byte;</li>
+ *     <li>countries, each {@value #COUNTRY_SIZE} bytes: the string offset of the ISO2 code and the range of
+ *     its rows in the position table;</li>
+ *     <li>the position table: row numbers grouped by country, in key order within a country;</li>
+ *     <li>the string region: length-prefixed UTF-8 strings, each distinct value stored once.</li>
+ * </ul>
+ * String offsets are relative to the string region and {@code -1} stands for {@code null}. A lookup is a binary
+ * search over the fixed-width keys; a headquarter's branches are the non-headquarter rows sharing its
+ * 8-character prefix, which sit right next to it.
+ */
+public final class SwiftCodeSnapshot {
+
+    static final int MAGIC = 0x53574654;
+
+    static final short VERSION = 2;
+
+    static final int HEADER_SIZE = 16;
+
+    static final int ROW_SIZE = 25;
+
+    static final int COUNTRY_SIZE = 12;
+
+    static final int NULL_REFERENCE = -1;
+
+    static final byte HEADQUARTER = 1;
+
+    static final byte HEADQUARTER_UNKNOWN = 2;
+
+    private static final int BANK_NAME = 8;
+
+    private static final int ADDRESS = 12;
+
+    private static final int COUNTRY_NAME = 16;
+
+    private static final int COUNTRY = 20;
+
+    private static final int FLAGS = 24;
+
+    private final ByteBuffer buffer;
+
+    private final int rowCount;
+
+    private final int countriesOffset;
+
+    private final int positionsOffset;
+
+    private final int stringsOffset;
+
+    private final String[] countryCodes;
+
+    private final Map<String, Integer> countries;
+
+    private SwiftCodeSnapshot(ByteBuffer buffer, int rowCount, int countryCount) {
+        this.buffer = buffer;
+        this.rowCount = rowCount;
+        this.countriesOffset = HEADER_SIZE + rowCount * ROW_SIZE;
+        this.positionsOffset = countriesOffset + countryCount * COUNTRY_SIZE;
+        this.stringsOffset = positionsOffset + rowCount * Integer.BYTES;
+        this.countryCodes = new String[countryCount];
+        this.countries = new HashMap<>(countryCount * 2);
+        for (int i = 0; i < countryCount; i++) {
+            countryCodes[i] = string(buffer.getInt(countriesOffset + i * COUNTRY_SIZE));
+            countries.put(countryCodes[i], i);
+        }
+    }
+
+    /**
+     * Maps {@code file}. The mapping stays valid after the file is replaced or deleted and is released when the
+     * snapshot is garbage collected.
+     */
+    public static SwiftCodeSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file.getFileName() + " is too large for a SWIFT code snapshot");
+            }
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException(file.getFileName() + " is not a SWIFT code snapshot");
+            }
+            final short version = buffer.getShort(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            final int rowCount = buffer.getInt(8);
+            final int countryCount = buffer.getInt(12);
+            final long stringsOffset = HEADER_SIZE + (long) rowCount * (ROW_SIZE + Integer.BYTES)
+                    + (long) countryCount * COUNTRY_SIZE;
+            if (rowCount < 0 || countryCount < 0 || stringsOffset > buffer.limit()) {
+                throw new IOException(file.getFileName() + " is truncated");
+            }
+            return new SwiftCodeSnapshot(buffer, rowCount, countryCount);
+        }
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    public boolean contains(final String swiftCode) {
+        return position(swiftCode) >= 0;
+    }
+
+    public Optional<SwiftCodeDTO> findDetailed(final String swiftCode) {
+        final int position = position(swiftCode);
+        if (position < 0) {
+            return Optional.empty();
+        }
+
+        final SwiftCodeDTO.SwiftCodeDTOBuilder builder = dtoBuilder(position);
+        if (flags(position) == HEADQUARTER && swiftCode.length() >= SwiftCodeKeys.PREFIX_LENGTH) {
+            final List<SwiftCodeDTO> branches = new ArrayList<>();
+            final String prefix = swiftCode.substring(0, SwiftCodeKeys.PREFIX_LENGTH);
+            final int to = lowerBound(SwiftCodeKeys.prefixHigh(prefix) + 1);
+            for (int i = lowerBound(SwiftCodeKeys.prefixLow(prefix)); i < to; i++) {
+                if (i != position && flags(i) != HEADQUARTER) {
+                    branches.add(dtoBuilder(i).build());
+                }
+            }
+            if (!branches.isEmpty()) {
+                builder.branches(branches);
+            }
+        }
+        return Optional.of(builder.build());
+    }
+
+    public Optional<SwiftCodeDTO> findBasic(final String swiftCode) {
+        final int position = position(swiftCode);
+        return position < 0 ? Optional.empty() : Optional.of(dtoBuilder(position).build());
+    }
+
+    public boolean containsCountry(final String countryISO2) {
+        return countries.containsKey(countryISO2);
+    }
+
+    public List<SwiftCodeSummary> findByCountry(final String countryISO2) {
+        final Integer country = countries.get(countryISO2);
+        return country == null ? List.of() : summaries(country, 0, countryRowCount(country));
+    }
+
+    /**
+     * Up to {@code limit} codes of the country ordered after {@code after} (exclusive); {@code after} may be
+     * {@code null} for the first page.
+     */
+    public List<SwiftCodeSummary> findPageByCountry(final String countryISO2, final String after, final int limit) {
+        final Integer country = countries.get(countryISO2);
+        if (country == null) {
+            return List.of();
+        }
+        final int count = countryRowCount(country);
+        final int from = after == null ? 0 : firstAfter(country, after);
+        return summaries(country, from, (int) Math.min(count, (long) from + limit));
+    }
+
+    public void forEachByCountry(final String countryISO2, final Consumer<SwiftCodeSummary> action) {
+        final Integer country = countries.get(countryISO2);
+        if (country != null) {
+            final int count = countryRowCount(country);
+            for (int i = 0; i < count; i++) {
+                action.accept(summary(countryPosition(country, i)));
+            }
+        }
+    }
+
+    /**
+     * Visits every row in key order.
+     */
+    public void forEach(final Consumer<SwiftCodeSummary> action) {
+        for (int i = 0; i < rowCount; i++) {
+            action.accept(summary(i));
+        }
+    }
+
+    private int position(final String swiftCode) {
+        final long key = SwiftCodeKeys.pack(swiftCode);
+        if (key == SwiftCodeKeys.INVALID) {
+            return -1;
+        }
+        final int position = lowerBound(key);
+        return position < rowCount && key(position) == key ? position : -1;
+    }
+
+    /** First row whose key is not below {@code key}. */
+    private int lowerBound(final long key) {
+        int low = 0;
+        int high = rowCount;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (key(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Index within the country of the first code strictly greater than {@code after}. */
+    private int firstAfter(final int country, final String after) {
+        int low = 0;
+        int high = countryRowCount(country);
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (SwiftCodeKeys.unpack(key(countryPosition(country, mid))).compareTo(after) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private List<SwiftCodeSummary> summaries(final int country, final int from, final int to) {
+        final List<SwiftCodeSummary> summaries = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            summaries.add(summary(countryPosition(country, i)));
+        }
+        return summaries;
+    }
+
+    private SwiftCodeSummary summary(final int position) {
+        final int row = rowOffset(position);
+        return new SwiftCodeSummary(
+                SwiftCodeKeys.unpack(buffer.getLong(row)),
+                string(buffer.getInt(row + BANK_NAME)),
+                string(buffer.getInt(row + ADDRESS)),
+                countryCode(buffer.getInt(row + COUNTRY)),
+                string(buffer.getInt(row + COUNTRY_NAME)),
+                isHeadquarter(buffer.get(row + FLAGS)));
+    }
+
+    private SwiftCodeDTO.SwiftCodeDTOBuilder dtoBuilder(final int position) {
+        final SwiftCodeSummary summary = summary(position);
+        return SwiftCodeDTO.builder()
+                .swiftCode(summary.swiftCode())
+                .bankName(summary.bankName())
+                .address(summary.address())
+                .countryISO2(summary.countryISO2())
+                .countryName(summary.countryName())
+                .isHeadquarter(Boolean.TRUE.equals(summary.isHeadquarter()));
+    }
+
+    private long key(final int position) {
+        return buffer.getLong(rowOffset(position));
+    }
+
+    private byte flags(final int position) {
+        return buffer.get(rowOffset(position) + FLAGS);
+    }
+
+    private int countryRowCount(final int country) {
+        return buffer.getInt(countriesOffset + country * COUNTRY_SIZE + 8);
+    }
+
+    private int countryPosition(final int country, final int index) {
+        final int first = buffer.getInt(countriesOffset + country * COUNTRY_SIZE + 4);
+        return buffer.getInt(positionsOffset + (first + index) * Integer.BYTES);
+    }
+
+    private String countryCode(final int country) {
+        return country == NULL_REFERENCE ? null : countryCodes[country];
+    }
+
+    private static int rowOffset(final int position) {
+        return HEADER_SIZE + position * ROW_SIZE;
+    }
+
+    private String string(final int reference) {
+        if (reference == NULL_REFERENCE) {
+            return null;
+        }
+        final int offset = stringsOffset + reference;
+        final byte[] utf8 = new byte[buffer.getInt(offset)];
+        buffer.get(offset + Integer.BYTES, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    static Boolean isHeadquarter(final byte flags) {
+        return (flags & HEADQUARTER_UNKNOWN) != 0 ? null : (flags & HEADQUARTER) != 0;
+    }
+}
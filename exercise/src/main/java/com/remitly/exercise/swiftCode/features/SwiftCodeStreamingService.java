@@ -0,0 +1,52 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes country listings row by row as the read store produces them instead of materializing them as a list.
+ */
+@Service
+public class SwiftCodeStreamingService {
+
+    private static final byte NEWLINE = '\n';
+
+    private final SwiftCodeReadStore readStore;
+
+    private final ObjectWriter writer;
+
+    public SwiftCodeStreamingService(final SwiftCodeReadStore readStore, final ObjectMapper objectMapper) {
+        this.readStore = readStore;
+        this.writer = objectMapper.writerFor(SwiftCodeDTO.class);
+    }
+
+    /**
+     * Writes one basic {@link SwiftCodeDTO} per line (NDJSON), ordered by SWIFT code.
+     *
+     * @return the number of rows written
+     */
+    public long writeCountryAsNdjson(final String countryISO2, final OutputStream out) throws IOException {
+        final long[] rows = {0};
+        try {
+            readStore.forEachByCountry(countryISO2, summary -> {
+                try {
+                    out.write(writer.writeValueAsBytes(SwiftCodeMapper.toBasicDTO(summary)));
+                    out.write(NEWLINE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+        return rows[0];
+    }
+}
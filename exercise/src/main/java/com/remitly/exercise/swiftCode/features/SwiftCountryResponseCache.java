@@ -0,0 +1,140 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import com.remitly.exercise.swiftCode.core.SwiftCodesByCountryDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodesChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fully serialized {@code GET /v1/swift-codes/country/{countryISO2code}} responses, plus a gzip copy where that is
+ * smaller, so a cached country is answered by copying bytes. Bounded by {@code swift.cache.country.maximum-size}
+ * bytes.
+ * <p>
+ * Built from the read store on the first request. After a change commits, the listed countries that are cached
+ * are rebuilt (a full reload rebuilds every cached country); this runs after the read stores have applied the
+ * change, and, as with the lookup cache, a concurrent build for the same country finishes before it is replaced.
+ * The {@link SnapshotSwiftCodeReadStore} applies changes later, so its countries are rebuilt again once the new
+ * snapshot is swapped in.
+ */
+@Component
+public class SwiftCountryResponseCache {
+
+    private final SwiftCodeReadStore readStore;
+
+    private final ObjectMapper objectMapper;
+
+    private final Cache<String, CountryResponse> cache;
+
+    public SwiftCountryResponseCache(final SwiftCodeReadStore readStore,
+                                     final ObjectMapper objectMapper,
+                                     @Value("${swift.cache.country.maximum-size:64MB}") final DataSize maximumSize,
+                                     final MeterRegistry meterRegistry) {
+        this.readStore = readStore;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((String country, CountryResponse response) -> response.size())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "swiftCountryResponse");
+    }
+
+    /**
+     * The serialized listing of {@code countryISO2} (upper case), or empty if the country has no codes; unknown
+     * countries are not cached.
+     */
+    public Optional<CountryResponse> get(final String countryISO2) {
+        return Optional.ofNullable(cache.get(countryISO2, this::build));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSwiftCodesChanged(final SwiftCodesChangedEvent event) {
+        rebuild(event.countries(), event.fullReload());
+    }
+
+    @EventListener
+    public void onSnapshotSwapped(final SnapshotSwiftCodeReadStore.Swapped event) {
+        rebuild(event.countries(), event.fullReload());
+    }
+
+    private void rebuild(final Set<String> changed, final boolean fullReload) {
+        final Set<String> countries = fullReload ? Set.copyOf(cache.asMap().keySet()) : changed;
+        for (final String country : countries) {
+            if (cache.getIfPresent(country) != null) {
+                cache.invalidate(country);
+                get(country);
+            } else {
+                cache.invalidate(country);
+            }
+        }
+    }
+
+    private CountryResponse build(final String countryISO2) {
+        final List<SwiftCodeSummary> summaries = readStore.findByCountry(countryISO2);
+        if (summaries.isEmpty()) {
+            return null;
+        }
+        final List<SwiftCodeDTO> swiftCodes = summaries.stream()
+                .map(SwiftCodeMapper::toBasicDTO)
+                .collect(Collectors.toList());
+        final SwiftCodesByCountryDTO dto = SwiftCodesByCountryDTO.builder()
+                .countryISO2(countryISO2)
+                .countryName(summaries.getFirst().countryName())
+                .swiftCodes(swiftCodes)
+                .build();
+        try {
+            final byte[] json = objectMapper.writeValueAsBytes(dto);
+            final byte[] gzip = gzip(json);
+            return new CountryResponse(json, gzip.length < json.length ? gzip : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize SWIFT codes of " + countryISO2, e);
+        }
+    }
+
+    private static byte[] gzip(final byte[] bytes) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * The JSON body and, if it compresses, its gzip encoding ({@code null} otherwise). The arrays are shared and
+     * must not be modified.
+     */
+    public record CountryResponse(byte[] json, byte[] gzip) {
+
+        int size() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.remitly.exercise.swiftCode.features;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports whether the SWIFT directory has been loaded. Included in the readiness group (see
+ * {@code management.endpoint.health.group.readiness.include}) so traffic is only routed once it is queryable.
+ */
+@Component
+public class SwiftDataHealthIndicator implements HealthIndicator {
+
+    private final DataLoader dataLoader;
+
+    public SwiftDataHealthIndicator(DataLoader dataLoader) {
+        this.dataLoader = dataLoader;
+    }
+
+    @Override
+    public Health health() {
+        final Health.Builder builder = switch (dataLoader.getState()) {
+            case LOADING -> Health.outOfService();
+            case READY -> Health.up();
+            case FAILED -> Health.down();
+        };
+        final ExcelParserService.ImportResult result = dataLoader.getLastResult();
+        if (result != null) {
+            builder.withDetail("contentHash", result.contentHash())
+                    .withDetail("rows", result.rows())
+                    .withDetail("rejected", result.rejected())
+                    .withDetail("skipped", result.skipped());
+        }
+        if (dataLoader.getLastError() != null) {
+            builder.withDetail("error", dataLoader.getLastError());
+        }
+        return builder.build();
+    }
+}
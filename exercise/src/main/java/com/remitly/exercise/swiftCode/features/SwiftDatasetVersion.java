@@ -0,0 +1,202 @@
+package com.remitly.exercise.swiftCode.features;
+
+import com.remitly.exercise.swiftCode.core.SwiftCodesChangedEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The version of the SWIFT directory this instance serves, as a strong ETag, kept in memory so conditional
+ * requests can be answered without a query.
+ * <p>
+ * The version lives in {@code swift_dataset_version}, so all instances sharing the database agree on it. Every
+ * transaction that publishes a {@link SwiftCodesChangedEvent} bumps it right before it commits, which keeps the
+ * lock on that single row for the commit only: writers do not queue behind a long import, only behind each
+ * other's commits. Writes made to {@code swift_codes} outside the application do not move it.
+ * <p>
+ * The ETag only moves on once the caches and read stores have applied a change: local changes with the version
+ * their transaction bumped to, changes of other instances with the version {@link SwiftCodeChangeBridge} relays.
+ * Versions are consecutive, so one applied ahead of a change still on its way waits for it. While the bridge is
+ * not listening, changes made elsewhere go unnoticed, so no ETag is issued at all; after it reconnects, everything
+ * is reloaded and the ETag restarts from the version read then. With the {@link SnapshotSwiftCodeReadStore},
+ * which applies changes in the background, the ETag is instead the version its current snapshot was exported at,
+ * once it has one.
+ */
+@Component
+public class SwiftDatasetVersion {
+
+    private static final String SELECT_VERSION = "SELECT dataset_id, version FROM swift_dataset_version WHERE id = 1";
+
+    private static final String SELECT_DATASET_ID = "SELECT dataset_id FROM swift_dataset_version WHERE id = 1";
+
+    private static final String BUMP_VERSION =
+            "UPDATE swift_dataset_version SET version = version + 1 WHERE id = 1 RETURNING version";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean relayed;
+
+    private final SnapshotSwiftCodeReadStore snapshotStore;
+
+    // versions bumped by local transactions, from just before their commit until their change is applied
+    private final Map<SwiftCodesChangedEvent, Long> committing = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    // the first read runs on a request thread, which may be virtual; a monitor held over it would pin the carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // guarded by lock: versions applied while an earlier one is still missing
+    private final SortedSet<Long> ahead = new TreeSet<>();
+
+    // written under lock: the highest version up to which every change has been applied, or -1 if unknown yet
+    private volatile long version = -1;
+
+    private volatile String datasetId;
+
+    private volatile boolean listening;
+
+    public SwiftDatasetVersion(final JdbcTemplate jdbcTemplate,
+                               @Value("${swift.cluster.notify.enabled:true}") final boolean relayed,
+                               final ObjectProvider<SnapshotSwiftCodeReadStore> snapshotStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.relayed = relayed;
+        this.listening = !relayed;
+        this.snapshotStore = snapshotStore.getIfAvailable();
+    }
+
+    /**
+     * The quoted ETag of the served version, e.g. {@code "3f2a9c1e-42"}, or {@code null} while changes made by
+     * other instances could be missed.
+     */
+    public String etag() {
+        if (!listening) {
+            return null;
+        }
+        final String exported = snapshotStore == null ? null : snapshotStore.etag();
+        if (exported != null) {
+            return exported;
+        }
+        long served = version;
+        if (served < 0) {
+            if (relayed) {
+                return null;
+            }
+            served = readBaseline();
+        }
+        final String id = datasetId;
+        return "\"" + (id != null ? id : readDatasetId()) + "-" + served + "\"";
+    }
+
+    /**
+     * Moves the version on in the writing transaction, so it commits together with the data it describes; runs
+     * first among the commit-time listeners, so {@link SwiftCodeChangeBridge} sends the new version. Changes
+     * relayed from other instances were counted where they were made.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void beforeCommit(final SwiftCodesChangedEvent event) {
+        if (!event.remote()) {
+            committing.put(event, jdbcTemplate.queryForObject(BUMP_VERSION, Long.class));
+        }
+    }
+
+    /**
+     * Runs after the read stores and the caches have applied the change, so a request that sees the new ETag also
+     * reads the new data.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSwiftCodesChanged(final SwiftCodesChangedEvent event) {
+        final Long applied = event.remote() ? Long.valueOf(event.version()) : committing.remove(event);
+        if (applied != null) {
+            apply(applied, event.fullReload());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onRollback(final SwiftCodesChangedEvent event) {
+        committing.remove(event);
+    }
+
+    @EventListener
+    public void onListeningChanged(final SwiftCodeChangeBridge.ListeningChanged event) {
+        listening = event.listening();
+    }
+
+    /**
+     * A full reload read everything committed up to {@code applied}, so the version jumps there; any other change
+     * only counts once those before it have been applied.
+     */
+    private void apply(final long applied, final boolean fullReload) {
+        lock.lock();
+        try {
+            if (fullReload) {
+                moveTo(applied);
+            } else if (applied > version) {
+                ahead.add(applied);
+                if (version >= 0) {
+                    moveTo(version);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // guarded by lock
+    private void moveTo(final long applied) {
+        long next = Math.max(version, applied);
+        ahead.headSet(next + 1).clear();
+        while (ahead.remove(next + 1)) {
+            next++;
+        }
+        version = next;
+    }
+
+    /**
+     * Without the bridge this instance is the only writer, so the stored version is the one it serves.
+     */
+    private long readBaseline() {
+        lock.lock();
+        try {
+            if (version < 0) {
+                jdbcTemplate.query(SELECT_VERSION, rs -> {
+                    datasetId = rs.getString("dataset_id").substring(0, 8);
+                    moveTo(rs.getLong("version"));
+                });
+            }
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String readDatasetId() {
+        lock.lock();
+        try {
+            if (datasetId == null) {
+                datasetId = jdbcTemplate.queryForObject(SELECT_DATASET_ID, String.class).substring(0, 8);
+            }
+            return datasetId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static String readEtag(final JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject(SELECT_VERSION, (rs, rowNum) ->
+                "\"" + rs.getString("dataset_id").substring(0, 8) + "-" + rs.getLong("version") + "\"");
+    }
+}
@@ -0,0 +1,13 @@
+-- Matches the schema previously generated by ddl-auto=update, so databases created before Flyway
+-- are picked up unchanged (see spring.flyway.baseline-on-migrate).
+CREATE TABLE IF NOT EXISTS swift_codes (
+    swift_code             VARCHAR(255) NOT NULL,
+    address                VARCHAR(255),
+    bank_name              VARCHAR(255),
+    country_name           VARCHAR(255),
+    countryiso2            VARCHAR(255),
+    is_headquarter         BOOLEAN,
+    headquarter_swift_code VARCHAR(255),
+    CONSTRAINT pk_swift_codes PRIMARY KEY (swift_code),
+    CONSTRAINT fk_swift_codes_headquarter FOREIGN KEY (headquarter_swift_code) REFERENCES swift_codes (swift_code)
+);
@@ -0,0 +1,8 @@
+-- Country listings and their keyset pages: WHERE countryiso2 = ? [AND swift_code > ?] ORDER BY swift_code.
+CREATE INDEX IF NOT EXISTS idx_swift_codes_country_swift_code ON swift_codes (countryiso2, swift_code);
+
+-- Branch discovery for a headquarter (the branches association and cascading deletes).
+CREATE INDEX IF NOT EXISTS idx_swift_codes_headquarter ON swift_codes (headquarter_swift_code);
+
+-- The primary key uses the database collation, which cannot serve LIKE 'prefix%'; this one can.
+CREATE INDEX IF NOT EXISTS idx_swift_codes_swift_code_pattern ON swift_codes (swift_code text_pattern_ops);
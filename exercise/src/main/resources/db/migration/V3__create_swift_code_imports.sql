@@ -0,0 +1,9 @@
+-- One row per imported source file with the content hash of its last successful import, so an
+-- unchanged file is not imported again on the next start.
+CREATE TABLE IF NOT EXISTS swift_code_imports (
+    source       VARCHAR(255)             NOT NULL,
+    content_hash VARCHAR(64)              NOT NULL,
+    row_count    INTEGER                  NOT NULL,
+    imported_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_swift_code_imports PRIMARY KEY (source)
+);
@@ -0,0 +1,25 @@
+-- A single row versioning the whole swift_codes table, used for HTTP ETags. Every statement that writes the table
+-- bumps it in the writing transaction, so the new version becomes visible together with the data it describes.
+-- dataset_id tells apart databases whose counters happen to match, e.g. after the schema is recreated.
+CREATE TABLE IF NOT EXISTS swift_dataset_version (
+    id         SMALLINT NOT NULL DEFAULT 1,
+    dataset_id UUID     NOT NULL DEFAULT gen_random_uuid(),
+    version    BIGINT   NOT NULL DEFAULT 1,
+    CONSTRAINT pk_swift_dataset_version PRIMARY KEY (id),
+    CONSTRAINT ck_swift_dataset_version_single_row CHECK (id = 1)
+);
+
+INSERT INTO swift_dataset_version (id) VALUES (1) ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION bump_swift_dataset_version() RETURNS trigger AS $$
+BEGIN
+    UPDATE swift_dataset_version SET version = version + 1 WHERE id = 1;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Statement level: a bulk import bumps the version once per statement, not once per row.
+DROP TRIGGER IF EXISTS trg_swift_codes_dataset_version ON swift_codes;
+CREATE TRIGGER trg_swift_codes_dataset_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON swift_codes
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_swift_dataset_version();
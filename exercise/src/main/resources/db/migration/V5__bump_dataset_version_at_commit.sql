@@ -0,0 +1,5 @@
+-- The statement trigger from V4 updated the single swift_dataset_version row on the first write of every
+-- transaction and held its lock until commit, so a long import blocked every other writer. The application now
+-- bumps the version once, right before each writing transaction commits (see SwiftDatasetVersion).
+DROP TRIGGER IF EXISTS trg_swift_codes_dataset_version ON swift_codes;
+DROP FUNCTION IF EXISTS bump_swift_dataset_version();
@@ -0,0 +1,118 @@
+import com.remitly.exercise.swiftCode.core.DatabaseConcurrencyLimiter;
+import com.remitly.exercise.swiftCode.core.DatabaseConcurrencyLimiterMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DatabaseConcurrencyLimiterTest {
+
+    private static DataSource limited(DatabaseConcurrencyLimiter limiter, DataSource target) {
+        return (DataSource) limiter.postProcessAfterInitialization(target, "dataSource");
+    }
+
+    private static DataSource pool() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        return target;
+    }
+
+    private static Connection onAnotherThread(DataSource dataSource) throws Exception {
+        AtomicReference<Connection> connection = new AtomicReference<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                connection.set(dataSource.getConnection());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).join();
+        return connection.get();
+    }
+
+    @Test
+    void leavesTheDataSourceAloneWhenDisabled() throws Exception {
+        DataSource target = pool();
+
+        assertSame(target, limited(new DatabaseConcurrencyLimiter(false, 1, Duration.ofSeconds(1)), target));
+    }
+
+    @Test
+    void timesOutWhileAllPermitsAreHeldAndReleasesOnClose() throws Exception {
+        DatabaseConcurrencyLimiter limiter = new DatabaseConcurrencyLimiter(true, 2, Duration.ofMillis(50));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DataSource dataSource = limited(limiter, pool());
+        dataSource.getConnection().close();
+        new DatabaseConcurrencyLimiterMetrics(limiter).bindTo(registry);
+        assertEquals(1, registry.get("swift.db.limiter.wait").functionTimer().count());
+
+        Connection first = onAnotherThread(dataSource);
+        Connection second = onAnotherThread(dataSource);
+        assertEquals(0, registry.get("swift.db.limiter.available").gauge().value());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        first.close();
+        assertEquals(1, registry.get("swift.db.limiter.available").gauge().value());
+        onAnotherThread(dataSource);
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        second.close();
+    }
+
+    @Test
+    void threadHoldingAConnectionGetsAnotherWithoutAPermit() throws Exception {
+        DatabaseConcurrencyLimiter limiter = new DatabaseConcurrencyLimiter(true, 1, Duration.ofMillis(50));
+        DataSource dataSource = limited(limiter, pool());
+
+        Connection outer = dataSource.getConnection();
+        Connection inner = dataSource.getConnection();
+        assertEquals(0, limiter.availablePermits());
+
+        outer.close();
+        assertEquals(0, limiter.availablePermits());
+        inner.close();
+        inner.close();
+        assertEquals(1, limiter.availablePermits());
+    }
+
+    @Test
+    void handsAPermitToAWaitingThread() throws Exception {
+        DataSource dataSource = limited(new DatabaseConcurrencyLimiter(true, 1, Duration.ofSeconds(5)), pool());
+        Connection held = dataSource.getConnection();
+        CountDownLatch acquired = new CountDownLatch(1);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try (Connection connection = dataSource.getConnection()) {
+                acquired.countDown();
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        });
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        held.close();
+
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertNull(failure.get());
+    }
+
+    @Test
+    void returnsThePermitWhenThePoolFails() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool down"))
+                .thenAnswer(invocation -> mock(Connection.class));
+        DataSource dataSource = limited(new DatabaseConcurrencyLimiter(true, 1, Duration.ofMillis(50)), target);
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertNotNull(dataSource.getConnection());
+    }
+}
@@ -1,36 +1,55 @@
+import com.remitly.exercise.swiftCode.core.SwiftCodeBulkWriter;
 import com.remitly.exercise.swiftCode.core.SwiftCodeEntity;
-import com.remitly.exercise.swiftCode.core.SwiftCodeRepository;
+import com.remitly.exercise.swiftCode.core.SwiftCodeImportEntity;
+import com.remitly.exercise.swiftCode.core.SwiftCodeImportRepository;
 import com.remitly.exercise.swiftCode.features.ExcelParserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 public class ExcelParserServiceTest {
 
     @Mock
-    private SwiftCodeRepository swiftCodeRepository;
+    private SwiftCodeBulkWriter bulkWriter;
+
+    @Mock
+    private SwiftCodeImportRepository importRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
 
-    @InjectMocks
     private ExcelParserService excelParserService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        excelParserService = new ExcelParserService(bulkWriter, importRepository, List.of(), eventPublisher,
+                meterRegistry, 1000, ExcelParserService.ImportMode.FULL, false, 1, true);
+        excelParserService.bindTo(meterRegistry);
     }
 
     @Test
@@ -73,23 +92,12 @@ public class ExcelParserServiceTest {
             byte[] excelBytes = bos.toByteArray();
             ByteArrayInputStream bis = new ByteArrayInputStream(excelBytes);
 
-            when(swiftCodeRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
-
-            SwiftCodeEntity headquarterStub = SwiftCodeEntity.builder()
-                    .swiftCode("HEADUS33XXX")
-                    .bankName("Headquarter Bank")
-                    .address("100 HQ St, City")
-                    .countryISO2("US")
-                    .countryName("UNITED STATES")
-                    .build();
-            when(swiftCodeRepository.findById("HEADUS33XXX")).thenReturn(Optional.of(headquarterStub));
-
             excelParserService.parseAndSaveExcelFile(bis);
         }
 
         @SuppressWarnings("unchecked")
         ArgumentCaptor<List<SwiftCodeEntity>> listCaptor = ArgumentCaptor.forClass(List.class);
-        verify(swiftCodeRepository).saveAll(listCaptor.capture());
+        verify(bulkWriter).upsertAll(listCaptor.capture());
         List<SwiftCodeEntity> savedEntities = listCaptor.getValue();
 
         SwiftCodeEntity headquarter = savedEntities.stream()
@@ -102,17 +110,138 @@ public class ExcelParserServiceTest {
         assertNotNull(headquarter, "Headquarter record should be saved");
         assertNotNull(branch, "Branch record should be saved");
 
-        ArgumentCaptor<SwiftCodeEntity> entityCaptor = ArgumentCaptor.forClass(SwiftCodeEntity.class);
-        verify(swiftCodeRepository, atLeastOnce()).save(entityCaptor.capture());
-        List<SwiftCodeEntity> savedUpdates = entityCaptor.getAllValues();
+        assertTrue(headquarter.getIsHeadquarter(), "Headquarter record should be flagged as headquarter");
+        assertFalse(branch.getIsHeadquarter(), "Branch record should not be flagged as headquarter");
+        assertEquals("100 HQ St, City", headquarter.getAddress());
+        assertEquals("UNITED STATES", branch.getCountryName());
 
-        SwiftCodeEntity updatedBranch = savedUpdates.stream()
-                .filter(e -> "HEADUS33BR1".equals(e.getSwiftCode()))
-                .findFirst().orElse(null);
+        InOrder inOrder = inOrder(bulkWriter);
+        inOrder.verify(bulkWriter).upsertAll(anyList());
+        inOrder.verify(bulkWriter).linkHeadquarters();
+
+        assertEquals(2, meterRegistry.get("swift.import.rows").counter().count());
+        for (String phase : List.of("parse", "save", "link")) {
+            assertEquals(1, meterRegistry.get("swift.import.phase").tag("phase", phase).timer().count(), phase);
+        }
+        assertTrue(meterRegistry.get("swift.import.throughput").gauge().value() > 0);
+    }
+
+    @Test
+    void testParseAndSaveExcelFile_WritesEachChunkAsItFillsAndLinksAfterTheLoad() throws Exception {
+        ExcelParserService chunkedService = new ExcelParserService(bulkWriter, importRepository, List.of(),
+                eventPublisher, meterRegistry, 2, ExcelParserService.ImportMode.FULL, false, 1, true);
+        // branches ahead of their headquarter: nothing waits for it, they are linked once everything is written
+        byte[] excelBytes = workbook("BANKPLPW001", "BANKPLPW002", "BANKPLPW003", "OTHRPLPWXXX", "BANKPLPWXXX");
+
+        chunkedService.parseAndSaveExcelFile(new ByteArrayInputStream(excelBytes));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SwiftCodeEntity>> chunks = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(bulkWriter);
+        inOrder.verify(bulkWriter, times(3)).upsertAll(chunks.capture());
+        inOrder.verify(bulkWriter).linkHeadquarters();
+        assertEquals(List.of(2, 2, 1), chunks.getAllValues().stream().map(List::size).toList());
+        assertEquals("BANKPLPWXXX", chunks.getValue().get(0).getSwiftCode());
+    }
+
+    @Test
+    void testImportIfChanged_SkipsUnchangedContent() throws Exception {
+        byte[] excelBytes = singleRowWorkbook();
+        ExcelParserService.ImportResult first =
+                excelParserService.importIfChanged("codes.xlsx", new ByteArrayInputStream(excelBytes));
+
+        assertFalse(first.skipped());
+        assertEquals(1, first.rows());
+        ArgumentCaptor<SwiftCodeImportEntity> recordCaptor = ArgumentCaptor.forClass(SwiftCodeImportEntity.class);
+        verify(importRepository).save(recordCaptor.capture());
+        assertEquals(first.contentHash(), recordCaptor.getValue().getContentHash());
+
+        when(importRepository.findById("codes.xlsx")).thenReturn(Optional.of(recordCaptor.getValue()));
+        ExcelParserService.ImportResult second =
+                excelParserService.importIfChanged("codes.xlsx", new ByteArrayInputStream(excelBytes));
+
+        assertTrue(second.skipped());
+        assertEquals(first.contentHash(), second.contentHash());
+        verify(bulkWriter, times(1)).upsertAll(anyList());
+        verify(importRepository, times(1)).save(any());
+    }
+
+    @Test
+    void testImportIfChanged_SkipsCodesTheStoresCannotServe() throws Exception {
+        byte[] excelBytes = workbook("BANKPLPWXXX", "BANK-PL-PW", "BANKPLPW001");
+
+        ExcelParserService.ImportResult result =
+                excelParserService.importIfChanged("codes.xlsx", new ByteArrayInputStream(excelBytes));
+
+        assertEquals(2, result.rows());
+        assertEquals(1, result.rejected());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SwiftCodeEntity>> chunk = ArgumentCaptor.forClass(List.class);
+        verify(bulkWriter).upsertAll(chunk.capture());
+        assertEquals(List.of("BANKPLPWXXX", "BANKPLPW001"),
+                chunk.getValue().stream().map(SwiftCodeEntity::getSwiftCode).toList());
+        verify(importRepository).save(any());
+        assertEquals(1, meterRegistry.get("swift.import.rejected").counter().count());
+    }
+
+    @Test
+    void testParseAndSaveExcelFiles_ReadsAllSheetsInParallelInOrder() throws Exception {
+        ExcelParserService parallelService = new ExcelParserService(bulkWriter, importRepository, List.of(),
+                eventPublisher, meterRegistry, 3, ExcelParserService.ImportMode.FULL, false, 4, true);
+        Path file = Files.createTempFile("swift-codes-sheets", ".xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            for (int s = 0; s < 3; s++) {
+                XSSFSheet sheet = workbook.createSheet("Sheet" + s);
+                sheet.createRow(0).createCell(1).setCellValue("SWIFT CODE");
+                for (int r = 0; r < 5; r++) {
+                    Row row = sheet.createRow(r + 1);
+                    row.createCell(0).setCellValue("pl");
+                    row.createCell(1).setCellValue("BANKPLP" + s + "00" + r);
+                }
+            }
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+
+            assertEquals(15, parallelService.parseAndSaveExcelFile(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SwiftCodeEntity>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(bulkWriter, times(5)).upsertAll(chunks.capture());
+        List<String> codes = chunks.getAllValues().stream().flatMap(List::stream).map(SwiftCodeEntity::getSwiftCode).toList();
+        assertEquals(15, codes.size());
+        assertEquals("BANKPLP0000", codes.get(0));
+        assertEquals("BANKPLP2004", codes.get(14));
+        assertEquals(codes.stream().sorted().toList(), codes);
+        assertEquals("PL", chunks.getValue().get(0).getCountryISO2());
+    }
+
+    private static byte[] singleRowWorkbook() throws Exception {
+        return singleRowWorkbook("BANKPLPWXXX");
+    }
 
-        assertNotNull(updatedBranch, "Branch record should have been updated");
-        assertNotNull(updatedBranch.getHeadquarter(), "Branch record should reference its headquarter");
-        assertEquals("HEADUS33XXX", updatedBranch.getHeadquarter().getSwiftCode(),
-                "Branch's headquarter swift code should match the headquarter record");
+    private static byte[] singleRowWorkbook(String swiftCode) throws Exception {
+        return workbook(swiftCode);
+    }
+
+    private static byte[] workbook(String... swiftCodes) throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            XSSFSheet sheet = workbook.createSheet("Sheet1");
+            sheet.createRow(0).createCell(1).setCellValue("SWIFT CODE");
+            for (int i = 0; i < swiftCodes.length; i++) {
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue("PL");
+                row.createCell(1).setCellValue(swiftCodes[i]);
+                row.createCell(3).setCellValue("Bank");
+                row.createCell(6).setCellValue("Poland");
+            }
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            workbook.write(bos);
+            return bos.toByteArray();
+        }
     }
 }
@@ -0,0 +1,79 @@
+import com.remitly.exercise.swiftCode.features.ParallelChunkPipeline;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelChunkPipelineTest {
+
+    private static ParallelChunkPipeline.RowSource<Integer> range(int from, int to) {
+        return rows -> IntStream.range(from, to).forEach(rows::accept);
+    }
+
+    @Test
+    void writesChunksInSourceOrderOnTheCallingThread() {
+        List<Integer> written = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+
+        new ParallelChunkPipeline<Integer, Integer>(4, 7, true, row -> row % 10 == 9 ? null : row * 2)
+                .run(List.of(range(0, 1000), range(1000, 1500), range(1500, 1501)), chunk -> {
+                    assertSame(caller, Thread.currentThread());
+                    written.addAll(chunk);
+                });
+
+        assertEquals(IntStream.range(0, 1501).filter(row -> row % 10 != 9).map(row -> row * 2).boxed().toList(),
+                written);
+    }
+
+    @Test
+    void writesEveryRowWhenUnordered() {
+        List<Integer> written = new ArrayList<>();
+
+        new ParallelChunkPipeline<Integer, Integer>(3, 10, false, row -> row)
+                .run(List.of(range(0, 500), range(500, 700), range(700, 1000)), written::addAll);
+
+        assertEquals(IntStream.range(0, 1000).boxed().toList(), written.stream().sorted().toList());
+    }
+
+    @Test
+    void rethrowsTheFirstFailure() {
+        ParallelChunkPipeline<Integer, Integer> pipeline = new ParallelChunkPipeline<>(2, 5, true, row -> {
+            if (row == 42) {
+                throw new IllegalArgumentException("bad row 42");
+            }
+            return row;
+        });
+
+        IllegalArgumentException conversionFailure = assertThrows(IllegalArgumentException.class,
+                () -> pipeline.run(List.of(range(0, 100)), chunk -> { }));
+        assertEquals("bad row 42", conversionFailure.getMessage());
+
+        IllegalStateException sourceFailure = assertThrows(IllegalStateException.class,
+                () -> pipeline.run(List.of(range(0, 10), rows -> {
+                    throw new IOException("unreadable sheet");
+                }), chunk -> { }));
+        assertInstanceOf(IOException.class, sourceFailure.getCause());
+    }
+
+    @Test
+    void rethrowsErrorsUnchanged() {
+        ParallelChunkPipeline<Integer, Integer> pipeline = new ParallelChunkPipeline<>(2, 5, true, row -> {
+            if (row == 42) {
+                throw new StackOverflowError("row 42");
+            }
+            return row;
+        });
+
+        StackOverflowError conversionFailure = assertThrows(StackOverflowError.class,
+                () -> pipeline.run(List.of(range(0, 100)), chunk -> { }));
+        assertEquals("row 42", conversionFailure.getMessage());
+
+        assertThrows(OutOfMemoryError.class, () -> pipeline.run(List.of(range(0, 10), rows -> {
+            throw new OutOfMemoryError("sheet");
+        }), chunk -> { }));
+    }
+}
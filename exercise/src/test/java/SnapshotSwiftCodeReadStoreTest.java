@@ -0,0 +1,154 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import com.remitly.exercise.swiftCode.core.SwiftCodesChangedEvent;
+import com.remitly.exercise.swiftCode.features.SnapshotSwiftCodeFormat;
+import com.remitly.exercise.swiftCode.features.SnapshotSwiftCodeReadStore;
+import com.remitly.exercise.swiftCode.features.SwiftCodeExportService;
+import com.remitly.exercise.swiftCode.features.SwiftCodeExporter;
+import com.remitly.exercise.swiftCode.features.SwiftCountryResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class SnapshotSwiftCodeReadStoreTest {
+
+    private static final SwiftCodesChangedEvent CHANGE =
+            SwiftCodesChangedEvent.of(Set.of("BANKPLPWXXX"), Set.of("PL"));
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private SwiftCodeExportService exportService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final AtomicInteger exports = new AtomicInteger();
+
+    private SnapshotSwiftCodeReadStore store;
+
+    private SwiftCountryResponseCache countryResponses;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class)))
+                .thenAnswer(invocation -> "\"v-" + (exports.get() + 1) + "\"");
+        when(exportService.export(any(), any())).thenAnswer(this::export);
+        store = new SnapshotSwiftCodeReadStore(exportService, jdbcTemplate, eventPublisher,
+                new SnapshotSwiftCodeFormat(), directory.resolve("swift-codes.swft").toString(), Duration.ofMillis(200));
+        countryResponses = new SwiftCountryResponseCache(store, new ObjectMapper(), DataSize.ofMegabytes(1),
+                new SimpleMeterRegistry());
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) instanceof SnapshotSwiftCodeReadStore.Swapped swapped) {
+                countryResponses.onSnapshotSwapped(swapped);
+            }
+            return null;
+        }).when(eventPublisher).publishEvent(any(Object.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    private long export(InvocationOnMock invocation) throws IOException {
+        final int export = exports.incrementAndGet();
+        try (SwiftCodeExporter.RowWriter writer =
+                     invocation.<SwiftCodeExporter>getArgument(0).open(invocation.<OutputStream>getArgument(1))) {
+            writer.write(new SwiftCodeSummary("BANKPLPWXXX", "Export " + export, "Address", "PL", "POLAND", true));
+        }
+        return 1L;
+    }
+
+    private void awaitEtag(String etag) throws InterruptedException {
+        final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!etag.equals(store.etag())) {
+            assertTrue(System.nanoTime() < deadline, "snapshot was not refreshed to " + etag);
+            Thread.sleep(10);
+        }
+    }
+
+    private String bankName() {
+        return store.findDetailed("BANKPLPWXXX").map(SwiftCodeDTO::getBankName).orElseThrow();
+    }
+
+    private String countryListing() {
+        return new String(countryResponses.get("PL").orElseThrow().json(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void burstOfChangesIsExportedOnceAfterTheDelay() throws Exception {
+        store.onApplicationReady();
+        awaitEtag("\"v-1\"");
+
+        for (int i = 0; i < 5; i++) {
+            store.onSwiftCodesChanged(CHANGE);
+        }
+        assertEquals("Export 1", bankName());
+        assertEquals("\"v-1\"", store.etag());
+
+        awaitEtag("\"v-2\"");
+        assertEquals("Export 2", bankName());
+        Thread.sleep(400);
+        verify(exportService, times(2)).export(any(), any());
+    }
+
+    @Test
+    void failedRefreshKeepsServingThePreviousSnapshotAndIsRetried() throws Exception {
+        store.onApplicationReady();
+        awaitEtag("\"v-1\"");
+        doThrow(new IOException("disk full")).doAnswer(this::export).when(exportService).export(any(), any());
+
+        store.onSwiftCodesChanged(CHANGE);
+        verify(exportService, timeout(2000).times(2)).export(any(), any());
+        assertEquals("Export 1", bankName());
+        assertEquals("\"v-1\"", store.etag());
+
+        awaitEtag("\"v-2\"");
+        assertEquals("Export 2", bankName());
+    }
+
+    @Test
+    void countryListingsAreRebuiltBeforeTheEtagMovesOn() throws Exception {
+        store.onApplicationReady();
+        awaitEtag("\"v-1\"");
+        assertTrue(countryListing().contains("Export 1"));
+
+        // the change commits: listings rebuilt now still read the previous snapshot
+        store.onSwiftCodesChanged(CHANGE);
+        countryResponses.onSwiftCodesChanged(CHANGE);
+        assertTrue(countryListing().contains("Export 1"));
+
+        awaitEtag("\"v-2\"");
+        assertTrue(countryListing().contains("Export 2"));
+    }
+}
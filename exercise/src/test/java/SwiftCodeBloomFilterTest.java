@@ -0,0 +1,79 @@
+import com.remitly.exercise.swiftCode.features.SwiftCodeBloomFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwiftCodeBloomFilterTest {
+
+    private static String code(int i) {
+        return String.format("B%03dPL%02d%s", i % 1000, i / 1000 % 100, i % 3 == 0 ? "XXX" : "");
+    }
+
+    @Test
+    void neverMissesACodeThatWasPut() {
+        SwiftCodeBloomFilter filter = SwiftCodeBloomFilter.create(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.put(code(i));
+        }
+
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(filter.mightContain(code(i)), code(i));
+        }
+        assertEquals(50_000, filter.puts());
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        SwiftCodeBloomFilter filter = SwiftCodeBloomFilter.create(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.put(code(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(String.format("ZZ%06dXXX", i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "Observed " + falsePositives + " false positives in 100000");
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+    }
+
+    @Test
+    void seesCodesPutConcurrently() throws Exception {
+        SwiftCodeBloomFilter filter = SwiftCodeBloomFilter.create(40_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = offset; i < 40_000; i += 4) {
+                        filter.put(code(i));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < 40_000; i++) {
+            assertTrue(filter.mightContain(code(i)), code(i));
+        }
+    }
+
+    @Test
+    void rejectsImpossibleRates() {
+        assertThrows(IllegalArgumentException.class, () -> SwiftCodeBloomFilter.create(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> SwiftCodeBloomFilter.create(10, 1));
+    }
+}
@@ -1,22 +1,78 @@
 import com.remitly.exercise.ExerciseApplication;
+import com.remitly.exercise.swiftCode.core.SwiftCodeBulkWriter;
+import com.remitly.exercise.swiftCode.core.SwiftCodeImportRepository;
 import com.remitly.exercise.swiftCode.core.SwiftCodeRepository;
+import com.remitly.exercise.swiftCode.features.ExcelParserService;
+import com.remitly.exercise.swiftCode.features.SwiftCodeChangeBridge;
+import com.remitly.exercise.swiftCode.features.SwiftCodeExistenceFilter;
+import com.remitly.exercise.swiftCode.features.SwiftCodeLookupCache;
+import com.remitly.exercise.swiftCode.features.SwiftCodeSearchService;
+import com.remitly.exercise.swiftCode.features.SwiftCountryResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import com.jayway.jsonpath.JsonPath;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Testcontainers
@@ -36,6 +92,8 @@ class SwiftCodeControllerIntegrationTest {
         registry.add("spring.datasource.url", POSTGRES_CONTAINER::getJdbcUrl);
         registry.add("spring.datasource.username", POSTGRES_CONTAINER::getUsername);
         registry.add("spring.datasource.password", POSTGRES_CONTAINER::getPassword);
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        registry.add("swift.import.async", () -> "false");
     }
 
     @Autowired
@@ -44,9 +102,48 @@ class SwiftCodeControllerIntegrationTest {
     @Autowired
     private SwiftCodeRepository swiftCodeRepository;
 
+    @Autowired
+    private SwiftCodeLookupCache lookupCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SwiftCodeBulkWriter bulkWriter;
+
+    @Autowired
+    private SwiftCodeImportRepository importRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ExcelParserService excelParserService;
+
+    @Autowired
+    private SwiftCountryResponseCache countryResponseCache;
+
+    @Autowired
+    private SwiftCodeSearchService searchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SwiftCodeExistenceFilter existenceFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SwiftCodeChangeBridge changeBridge;
+
     @BeforeEach
     void setUp() {
         swiftCodeRepository.deleteAll();
+        lookupCache.invalidateAll();
+        countryResponseCache.invalidateAll();
+        searchService.reload();
     }
 
     @Test
@@ -215,6 +312,502 @@ class SwiftCodeControllerIntegrationTest {
                 .andExpect(jsonPath("$.branches").isEmpty());
     }
 
+    @Test
+    void shouldPageSwiftCodesForACountryByCursor() throws Exception {
+        for (String swiftCode : new String[]{"PAGEPL01XXX", "PAGEPL02XXX", "PAGEPL03XXX"}) {
+            mockMvc.perform(post("/v1/swift-codes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                {
+                                  "swiftCode": "%s",
+                                  "bankName": "Page Bank",
+                                  "address": "1 Cursor Street",
+                                  "countryISO2": "pl",
+                                  "countryName": "poland"
+                                }
+                                """.formatted(swiftCode)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/v1/swift-codes/country/pl").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes.length()").value(2))
+                .andExpect(jsonPath("$.swiftCodes[0].swiftCode").value("PAGEPL01XXX"))
+                .andExpect(jsonPath("$.swiftCodes[1].swiftCode").value("PAGEPL02XXX"))
+                .andExpect(jsonPath("$.nextAfter").value("PAGEPL02XXX"));
+
+        mockMvc.perform(get("/v1/swift-codes/country/pl").param("after", "PAGEPL02XXX").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes.length()").value(1))
+                .andExpect(jsonPath("$.swiftCodes[0].swiftCode").value("PAGEPL03XXX"))
+                .andExpect(jsonPath("$.nextAfter").doesNotExist());
+
+        MvcResult streamResult = mockMvc.perform(get("/v1/swift-codes/country/pl/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(streamResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(containsString("\"swiftCode\":\"PAGEPL03XXX\"")));
+    }
+
+    @Test
+    void shouldLoadHeadquarterWithBranchesInSingleStatement() throws Exception {
+        for (String swiftCode : new String[]{"STATUS33XXX", "STATUS33BR1", "STATUS33BR2"}) {
+            mockMvc.perform(post("/v1/swift-codes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                {
+                                  "swiftCode": "%s",
+                                  "bankName": "Statement Bank",
+                                  "address": "1 Query Lane",
+                                  "countryISO2": "us",
+                                  "countryName": "united states"
+                                }
+                                """.formatted(swiftCode)))
+                    .andExpect(status().isCreated());
+        }
+        lookupCache.invalidateAll();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/v1/swift-codes/STATUS33XXX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.branches.length()").value(2));
+
+        assertEquals(1, statistics.getPrepareStatementCount(),
+                "Detailed headquarter lookup should be a single SQL statement");
+    }
+
+    @Test
+    void shouldNotServeStaleCachedHeadquarterAfterBranchChanges() throws Exception {
+        String headquarterRequest = """
+            {
+              "swiftCode": "CACHUS33XXX",
+              "bankName": "Cache Bank",
+              "address": "1 Cache Street",
+              "countryISO2": "us",
+              "countryName": "united states"
+            }
+            """;
+        String branchRequest = """
+            {
+              "swiftCode": "CACHUS33BR1",
+              "bankName": "Cache Bank Branch",
+              "address": "2 Cache Street",
+              "countryISO2": "us",
+              "countryName": "united states"
+            }
+            """;
+
+        mockMvc.perform(post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(headquarterRequest))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/v1/swift-codes/CACHUS33XXX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.branches").isEmpty());
+
+        mockMvc.perform(post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(branchRequest))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/v1/swift-codes/CACHUS33XXX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.branches.length()").value(1))
+                .andExpect(jsonPath("$.branches[0].swiftCode").value("CACHUS33BR1"));
+
+        mockMvc.perform(get("/v1/swift-codes/CACHUS33BR1"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/v1/swift-codes/CACHUS33XXX"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/swift-codes/CACHUS33XXX"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/v1/swift-codes/CACHUS33BR1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldOnlyWriteChangedRowsInDeltaImport() throws Exception {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        ExcelParserService deltaImport = new ExcelParserService(bulkWriter, importRepository, List.of(), event -> { },
+                meters, 1000, ExcelParserService.ImportMode.DELTA, true, 1, true);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Path file = Files.createTempFile("swift-codes-delta", ".xlsx");
+        try {
+            writeWorkbook(file, List.of(
+                    new String[]{"PL", "DELTPLPWXXX", "Delta Bank"},
+                    new String[]{"PL", "DELTPLPW001", "Delta Bank"},
+                    new String[]{"DE", "OTHRDEFFXXX", "Other Bank"}));
+            transaction.executeWithoutResult(status -> deltaImport.parseAndSaveExcelFile(file));
+            transaction.executeWithoutResult(status -> deltaImport.parseAndSaveExcelFile(file));
+
+            assertEquals(3, changes(meters, "inserted"));
+            assertEquals(0, changes(meters, "updated"));
+            assertEquals("DELTPLPWXXX",
+                    swiftCodeRepository.findById("DELTPLPW001").orElseThrow().getHeadquarter().getSwiftCode());
+
+            writeWorkbook(file, List.of(
+                    new String[]{"PL", "DELTPLPWXXX", "Renamed Bank"},
+                    new String[]{"DE", "OTHRDEFFXXX", "Other Bank"},
+                    new String[]{"DE", "NEWWDEFFXXX", "New Bank"}));
+            transaction.executeWithoutResult(status -> deltaImport.parseAndSaveExcelFile(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertEquals(4, changes(meters, "inserted"));
+        assertEquals(1, changes(meters, "updated"));
+        assertEquals(1, changes(meters, "deleted"));
+        assertEquals("Renamed Bank", swiftCodeRepository.findById("DELTPLPWXXX").orElseThrow().getBankName());
+        assertTrue(swiftCodeRepository.findById("DELTPLPW001").isEmpty());
+    }
+
+    @Test
+    void shouldKeepTheLastOccurrenceOfARepeatedCodeInAFullImport() throws Exception {
+        ExcelParserService smallChunks = new ExcelParserService(bulkWriter, importRepository, List.of(), event -> { },
+                new SimpleMeterRegistry(), 3, ExcelParserService.ImportMode.FULL, false, 1, true);
+        Path file = Files.createTempFile("swift-codes-repeated", ".xlsx");
+        try {
+            // chunks of three: the code repeats inside the first chunk and again in the second
+            writeWorkbook(file, List.of(
+                    new String[]{"PL", "REPTPLPWXXX", "First Name"},
+                    new String[]{"PL", "REPTPLPWXXX", "Second Name"},
+                    new String[]{"PL", "REPTPLPW001", "Branch Name"},
+                    new String[]{"PL", "REPTPLPWXXX", "Last Name"}));
+            new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> smallChunks.parseAndSaveExcelFile(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertEquals(2, swiftCodeRepository.count());
+        assertEquals("Last Name", swiftCodeRepository.findById("REPTPLPWXXX").orElseThrow().getBankName());
+        assertEquals("REPTPLPWXXX",
+                swiftCodeRepository.findById("REPTPLPW001").orElseThrow().getHeadquarter().getSwiftCode());
+    }
+
+    @Test
+    void shouldKeepTheLastOccurrenceOfARepeatedCodeWhenConvertingRowsInParallel() throws Exception {
+        ExcelParserService parallel = new ExcelParserService(bulkWriter, importRepository, List.of(), event -> { },
+                new SimpleMeterRegistry(), 3, ExcelParserService.ImportMode.FULL, false, 4, true);
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            rows.add(new String[]{"PL", "REPTPLPWXXX", "Name " + i});
+            rows.add(new String[]{"PL", "REPTPLPW%03d".formatted(i), "Branch Name"});
+        }
+        Path file = Files.createTempFile("swift-codes-repeated", ".xlsx");
+        try {
+            writeWorkbook(file, rows);
+            new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> parallel.parseAndSaveExcelFile(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertEquals(21, swiftCodeRepository.count());
+        assertEquals("Name 19", swiftCodeRepository.findById("REPTPLPWXXX").orElseThrow().getBankName());
+    }
+
+    @Test
+    void shouldKeepTheLastOccurrenceOfARepeatedCodeInADeltaImport() throws Exception {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        ExcelParserService deltaImport = new ExcelParserService(bulkWriter, importRepository, List.of(), event -> { },
+                meters, 3, ExcelParserService.ImportMode.DELTA, false, 1, true);
+        Path file = Files.createTempFile("swift-codes-repeated", ".xlsx");
+        try {
+            writeWorkbook(file, List.of(
+                    new String[]{"PL", "REPTPLPWXXX", "First Name"},
+                    new String[]{"PL", "REPTPLPWXXX", "Second Name"},
+                    new String[]{"PL", "REPTPLPW001", "Branch Name"},
+                    new String[]{"PL", "REPTPLPWXXX", "Last Name"}));
+            new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> deltaImport.parseAndSaveExcelFile(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertEquals(2, changes(meters, "inserted"));
+        assertEquals("Last Name", swiftCodeRepository.findById("REPTPLPWXXX").orElseThrow().getBankName());
+    }
+
+    private static double changes(SimpleMeterRegistry meters, String change) {
+        return meters.get("swift.import.changes").tag("change", change).counter().count();
+    }
+
+    @Test
+    void shouldExportAndReimportSwiftCodes() throws Exception {
+        importWorkbook(List.of(
+                new String[]{"PL", "EXPOPLPWXXX", "Export, \"Quoted\" Bank"},
+                new String[]{"PL", "EXPOPLPW001", "Export Branch"}));
+
+        MvcResult csvResult = mockMvc.perform(get("/v1/swift-codes/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(csvResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string(containsString("PL,EXPOPLPWXXX,BIC11,\"Export, \"\"Quoted\"\" Bank\"")));
+
+        MvcResult snapshotResult = mockMvc.perform(get("/v1/swift-codes/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] snapshot = mockMvc.perform(asyncDispatch(snapshotResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/octet-stream"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        swiftCodeRepository.deleteAll();
+        Path file = Files.createTempFile("swift-codes-export", ".swft");
+        try {
+            Files.write(file, snapshot);
+            new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> excelParserService.importFile(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertEquals("Export, \"Quoted\" Bank",
+                swiftCodeRepository.findById("EXPOPLPWXXX").orElseThrow().getBankName());
+        assertEquals("EXPOPLPWXXX",
+                swiftCodeRepository.findById("EXPOPLPW001").orElseThrow().getHeadquarter().getSwiftCode());
+
+        mockMvc.perform(get("/v1/swift-codes/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldLookUpManySwiftCodesInRequestOrder() throws Exception {
+        importWorkbook(List.of(
+                new String[]{"PL", "LOOKPLPWXXX", "Lookup Bank"},
+                new String[]{"PL", "LOOKPLPW001", "Lookup Branch"},
+                new String[]{"DE", "LOOKDEFFXXX", "Other Bank"}));
+
+        String body = """
+            {
+              "swiftCodes": ["LOOKPLPW001", "MISSINGXXXX", "LOOKPLPWXXX", "LOOKPLPW001"]
+            }
+            """;
+        mockMvc.perform(post("/v1/swift-codes/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found").value(3))
+                .andExpect(jsonPath("$.notFound").value(1))
+                .andExpect(jsonPath("$.results[0].swiftCode").value("LOOKPLPW001"))
+                .andExpect(jsonPath("$.results[0].details.bankName").value("Lookup Branch"))
+                .andExpect(jsonPath("$.results[1].swiftCode").value("MISSINGXXXX"))
+                .andExpect(jsonPath("$.results[1].found").value(false))
+                .andExpect(jsonPath("$.results[1].details").doesNotExist())
+                .andExpect(jsonPath("$.results[2].details.isHeadquarter").value(true))
+                .andExpect(jsonPath("$.results[2].details.branches").isEmpty())
+                .andExpect(jsonPath("$.results[3].found").value(true));
+
+        String withBranches = """
+            {
+              "swiftCodes": ["LOOKPLPWXXX", "LOOKDEFFXXX"],
+              "includeBranches": true
+            }
+            """;
+        mockMvc.perform(post("/v1/swift-codes/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(withBranches))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].details.branches.length()").value(1))
+                .andExpect(jsonPath("$.results[0].details.branches[0].swiftCode").value("LOOKPLPW001"))
+                .andExpect(jsonPath("$.results[1].details.branches").isEmpty());
+
+        mockMvc.perform(post("/v1/swift-codes/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCodes\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldCreateAndDeleteSwiftCodesInBatches() throws Exception {
+        importWorkbook(List.<String[]>of(new String[]{"PL", "BTCHPLPW002", "Existing Branch"}));
+
+        String createBody = """
+            [
+              {"swiftCode": "BTCHPLPWXXX", "bankName": " Batch Bank ", "address": "1 Batch St",
+               "countryISO2": "pl", "countryName": "poland"},
+              {"swiftCode": "BTCHPLPW001", "bankName": "Batch Branch", "address": "2 Batch St",
+               "countryISO2": "pl", "countryName": "poland"},
+              {"swiftCode": "bad", "bankName": "", "address": "3 Batch St",
+               "countryISO2": "pl", "countryName": "poland"},
+              {"swiftCode": "BTCHPLPW001", "bankName": "Repeated", "address": "4 Batch St",
+               "countryISO2": "pl", "countryName": "poland"},
+              {"swiftCode": "BTCHPLPW002", "bankName": "Existing", "address": "5 Batch St",
+               "countryISO2": "pl", "countryName": "poland"}
+            ]
+            """;
+        mockMvc.perform(post("/v1/swift-codes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[1].status").value(201))
+                .andExpect(jsonPath("$.results[2].status").value(400))
+                .andExpect(jsonPath("$.results[2].validationErrors.length()").value(2))
+                .andExpect(jsonPath("$.results[3].message").value("SWIFT code is repeated in the batch."))
+                .andExpect(jsonPath("$.results[4].message").value("SWIFT code already exists."));
+
+        mockMvc.perform(get("/v1/swift-codes/BTCHPLPWXXX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bankName").value("Batch Bank"))
+                .andExpect(jsonPath("$.countryName").value("POLAND"))
+                .andExpect(jsonPath("$.branches.length()").value(2));
+
+        mockMvc.perform(delete("/v1/swift-codes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"BTCHPLPWXXX\", \"MISSINGXXXX\", \"BTCHPLPW001\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value(200))
+                .andExpect(jsonPath("$.results[1].status").value(404))
+                .andExpect(jsonPath("$.results[2].status").value(200));
+
+        assertTrue(swiftCodeRepository.findById("BTCHPLPW002").isEmpty());
+        mockMvc.perform(get("/v1/swift-codes/BTCHPLPWXXX"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/v1/swift-codes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void importWorkbook(List<String[]> rows) throws IOException {
+        Path file = Files.createTempFile("swift-codes-export", ".xlsx");
+        try {
+            writeWorkbook(file, rows);
+            new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> excelParserService.importFile(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void writeWorkbook(Path file, List<String[]> rows) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            XSSFSheet sheet = workbook.createSheet("Sheet1");
+            sheet.createRow(0).createCell(1).setCellValue("SWIFT CODE");
+            for (int i = 0; i < rows.size(); i++) {
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue(rows.get(i)[0]);
+                row.createCell(1).setCellValue(rows.get(i)[1]);
+                row.createCell(3).setCellValue(rows.get(i)[2]);
+                row.createCell(6).setCellValue(rows.get(i)[0]);
+            }
+            workbook.write(out);
+        }
+    }
+
+    @Test
+    void shouldAnswerConditionalRequestsWithoutQueryingTheDatabase() throws Exception {
+        String request = """
+            {
+              "swiftCode": "%s",
+              "bankName": "Etag Bank",
+              "address": "1 Cache Street",
+              "countryISO2": "fr",
+              "countryName": "france"
+            }
+            """;
+        mockMvc.perform(post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request.formatted("ETAGFRPPXXX")))
+                .andExpect(status().isCreated());
+
+        String etag = mockMvc.perform(get("/v1/swift-codes/ETAGFRPPXXX"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        lookupCache.invalidateAll();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/v1/swift-codes/ETAGFRPPXXX").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/v1/swift-codes/country/FR").header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, statistics.getPrepareStatementCount(), "A matching ETag should not reach the database");
+
+        mockMvc.perform(post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request.formatted("ETAGFRPP001")))
+                .andExpect(status().isCreated());
+
+        String changed = mockMvc.perform(get("/v1/swift-codes/country/FR").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes.length()").value(2))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+        mockMvc.perform(get("/v1/swift-codes/ETAGFRPPXXX").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.branches.length()").value(1));
+    }
+
+    @Test
+    void shouldServeCachedCountryListingsAndRebuildThemOnChange() throws Exception {
+        String request = """
+            {
+              "swiftCode": "%s",
+              "bankName": "Cached Bank",
+              "address": "1 Serialized Street",
+              "countryISO2": "it",
+              "countryName": "italy"
+            }
+            """;
+        for (String swiftCode : new String[]{"CACHITRRXXX", "CACHITRR001", "CACHITRR002"}) {
+            mockMvc.perform(post("/v1/swift-codes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(request.formatted(swiftCode)))
+                    .andExpect(status().isCreated());
+        }
+
+        String json = mockMvc.perform(get("/v1/swift-codes/country/it"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes.length()").value(3))
+                .andReturn().getResponse().getContentAsString();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        MvcResult gzipped = mockMvc.perform(get("/v1/swift-codes/country/IT")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().string(HttpHeaders.ETAG, containsString("-gzip")))
+                .andReturn();
+        assertEquals(0, statistics.getPrepareStatementCount(), "A cached country should not reach the database");
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            assertEquals(json, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        mockMvc.perform(delete("/v1/swift-codes/CACHITRR001"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/swift-codes/country/IT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes.length()").value(2))
+                .andExpect(jsonPath("$.swiftCodes[?(@.swiftCode=='CACHITRR001')]").doesNotExist());
+
+        mockMvc.perform(delete("/v1/swift-codes/CACHITRRXXX"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/swift-codes/country/IT"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void shouldThrowExceptionWhenCreatingDuplicateSwiftCode() throws Exception {
         String requestBody = """
@@ -258,6 +851,363 @@ class SwiftCodeControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Validation Failed"));
     }
 
+    @Test
+    void shouldSearchByCodeBankNameAndTownAndFollowWrites() throws Exception {
+        String requestBody = """
+            {
+              "swiftCode": "ALBPPLPWXXX",
+              "bankName": "ALIOR BANK SPOLKA AKCYJNA",
+              "address": "LOPUSZANSKA 38D, KRAKÓW",
+              "countryISO2": "PL",
+              "countryName": "POLAND",
+              "isHeadquarter": true
+            }
+            """;
+        mockMvc.perform(post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "albp pl"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.query").value("albp pl"))
+                .andExpect(jsonPath("$.results[0].swiftCode").value("ALBPPLPWXXX"))
+                .andExpect(jsonPath("$.results[0].bankName").value("ALIOR BANK SPOLKA AKCYJNA"));
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "alior krak"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(1));
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "alier"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(1));
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "alier").param("fuzzy", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(0));
+
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "alior").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(delete("/v1/swift-codes/ALBPPLPWXXX"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "alior"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(0));
+    }
+
+    @Test
+    void shouldKeepHeadquartersAndBranchesLinkedUnderConcurrentWrites() throws Exception {
+        final int banks = 6;
+        final int branchesPerBank = 4;
+        final ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (int round = 0; round < 5; round++) {
+                final List<Callable<Integer>> writes = new ArrayList<>();
+                for (int bank = 0; bank < banks; bank++) {
+                    final String prefix = String.format("RACE%dP%02d", round, bank);
+                    // the headquarter twice: exactly one of the two creates may win
+                    writes.add(() -> createStatus(prefix + "XXX"));
+                    writes.add(() -> createStatus(prefix + "XXX"));
+                    for (int branch = 0; branch < branchesPerBank; branch++) {
+                        final String swiftCode = String.format("%sB%02d", prefix, branch);
+                        writes.add(branch % 2 == 0
+                                ? () -> createStatus(swiftCode)
+                                : () -> batchCreateStatus(swiftCode));
+                    }
+                }
+                Collections.shuffle(writes, new Random(round));
+
+                final CountDownLatch start = new CountDownLatch(1);
+                final List<Future<Integer>> statuses = new ArrayList<>();
+                for (final Callable<Integer> write : writes) {
+                    statuses.add(executor.submit(() -> {
+                        start.await();
+                        return write.call();
+                    }));
+                }
+                start.countDown();
+                int created = 0;
+                int rejected = 0;
+                for (final Future<Integer> status : statuses) {
+                    final int code = status.get();
+                    if (code == 201) {
+                        created++;
+                    } else if (code == 400) {
+                        rejected++;
+                    }
+                }
+
+                assertEquals(banks * (1 + branchesPerBank), created, "Round " + round);
+                assertEquals(banks, rejected, "Round " + round + ": only the duplicate headquarters are rejected");
+                assertEquals(0, jdbcTemplate.queryForObject("""
+                        SELECT count(*) FROM swift_codes
+                        WHERE is_headquarter = false
+                          AND headquarter_swift_code IS DISTINCT FROM substring(swift_code from 1 for 8) || 'XXX'
+                        """, Integer.class), "Round " + round + ": every branch is linked to its headquarter");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        mockMvc.perform(get("/v1/swift-codes/RACE0P00XXX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.branches.length()").value(branchesPerBank));
+    }
+
+    @Test
+    void shouldNotBlockWritersOnOtherBanksWhileAnImportIsOpen() throws Exception {
+        CountDownLatch imported = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Path file = Files.createTempFile("swift-codes-open-import", ".xlsx");
+        try {
+            writeWorkbook(file, List.<String[]>of(new String[]{"DE", "SLOWDEFFXXX", "Slow Import Bank"}));
+            Future<?> importing = executor.submit(() -> new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> {
+                        excelParserService.importFile(file);
+                        imported.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }));
+            assertTrue(imported.await(30, TimeUnit.SECONDS));
+
+            // the import has written its rows but not committed
+            Future<Integer> created = executor.submit(() -> createStatus("FASTPLPWXXX"));
+            assertEquals(201, created.get(10, TimeUnit.SECONDS));
+
+            release.countDown();
+            importing.get(30, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+            Files.deleteIfExists(file);
+        }
+
+        assertTrue(swiftCodeRepository.existsById("SLOWDEFFXXX"));
+        assertTrue(swiftCodeRepository.existsById("FASTPLPWXXX"));
+    }
+
+    private int createStatus(String swiftCode) throws Exception {
+        return mockMvc.perform(post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestJson(swiftCode)))
+                .andReturn().getResponse().getStatus();
+    }
+
+    private int batchCreateStatus(String swiftCode) throws Exception {
+        final String body = mockMvc.perform(post("/v1/swift-codes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + requestJson(swiftCode) + "]"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.results[0].status");
+    }
+
+    private static String requestJson(String swiftCode) {
+        return String.format("""
+                {
+                  "swiftCode": "%s",
+                  "bankName": "Race Bank",
+                  "address": "1 Contention Street, WARSZAWA",
+                  "countryISO2": "PL",
+                  "countryName": "POLAND"
+                }
+                """, swiftCode);
+    }
+
+    @Test
+    void shouldAnswerUnknownCodesFromTheExistenceFilter() throws Exception {
+        // setUp empties the table behind the filter's back
+        existenceFilter.rebuild();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/v1/swift-codes/NOPEPLPWXXX"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("SWIFT code NOPEPLPWXXX not found."));
+        assertEquals(0, statistics.getPrepareStatementCount(), "An unknown code should not reach the database");
+
+        mockMvc.perform(post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestJson("BLOOMPLPXXX")))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/v1/swift-codes/BLOOMPLPXXX"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/v1/swift-codes/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCodes\": [\"BLOOMPLPXXX\", \"NOPEPLPWXXX\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].found").value(true))
+                .andExpect(jsonPath("$.results[1].found").value(false));
+
+        // a deleted code stays in the filter and costs a query until the next rebuild
+        mockMvc.perform(delete("/v1/swift-codes/BLOOMPLPXXX"))
+                .andExpect(status().isOk());
+        double falsePositives = meterRegistry.get("swift.bloom.false.positives").counter().count();
+        mockMvc.perform(get("/v1/swift-codes/BLOOMPLPXXX"))
+                .andExpect(status().isNotFound());
+        assertEquals(falsePositives + 1, meterRegistry.get("swift.bloom.false.positives").counter().count());
+
+        existenceFilter.rebuild();
+        statistics.clear();
+        mockMvc.perform(get("/v1/swift-codes/BLOOMPLPXXX"))
+                .andExpect(status().isNotFound());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldNotifyOtherInstancesOfCommittedChanges() throws Exception {
+        try (Connection connection = jdbcTemplate.getDataSource().getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN swift_codes_changed");
+            }
+            try {
+                mockMvc.perform(post("/v1/swift-codes")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(requestJson("NTFYPLPWXXX")))
+                        .andExpect(status().isCreated());
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                List<String> payloads = new ArrayList<>();
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (payloads.isEmpty() && System.nanoTime() < deadline) {
+                    PGNotification[] notifications = pgConnection.getNotifications(500);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            payloads.add(notification.getParameter());
+                        }
+                    }
+                }
+
+                assertEquals(1, payloads.size(), "One notification per committed change");
+                String payload = payloads.get(0);
+                assertEquals(changeBridge.nodeId(), JsonPath.read(payload, "$.node"));
+                assertEquals(List.of("NTFYPLPWXXX"), JsonPath.read(payload, "$.swiftCodes"));
+                assertEquals(List.of("PL"), JsonPath.read(payload, "$.countries"));
+                assertEquals(false, JsonPath.read(payload, "$.fullReload"));
+                assertTrue(((Number) JsonPath.read(payload, "$.version")).longValue() > 0);
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("UNLISTEN *");
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldApplyChangesNotifiedByOtherInstances() throws Exception {
+        existenceFilter.rebuild();
+        mockMvc.perform(post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestJson("PEERPLPWXXX")))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/v1/swift-codes/PEERPLPWXXX"))
+                .andExpect(jsonPath("$.bankName").value("Race Bank"));
+
+        // another instance renames the bank and adds a branch; until it says so, this one serves what it has cached
+        jdbcTemplate.update("UPDATE swift_codes SET bank_name = 'Peer Bank' WHERE swift_code = 'PEERPLPWXXX'");
+        jdbcTemplate.update("""
+                INSERT INTO swift_codes (swift_code, bank_name, address, countryiso2, country_name, is_headquarter,
+                                         headquarter_swift_code)
+                VALUES ('PEERPLPW001', 'Peer Bank', '2 Replica Road, GDANSK', 'PL', 'POLAND', false, 'PEERPLPWXXX')
+                """);
+        mockMvc.perform(get("/v1/swift-codes/PEERPLPWXXX"))
+                .andExpect(jsonPath("$.bankName").value("Race Bank"));
+
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {
+        }, "swift_codes_changed", """
+                {"node": "peer", "version": 0, "fullReload": false,
+                 "swiftCodes": ["PEERPLPWXXX", "PEERPLPW001"], "countries": ["PL"]}
+                """);
+
+        awaitTrue("the renamed bank to be served", () -> bankName("PEERPLPWXXX").equals("Peer Bank"));
+        mockMvc.perform(get("/v1/swift-codes/PEERPLPW001"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/swift-codes/PEERPLPWXXX"))
+                .andExpect(jsonPath("$.branches.length()").value(1));
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "peer gdansk"))
+                .andExpect(jsonPath("$.results[0].swiftCode").value("PEERPLPW001"));
+    }
+
+    @Test
+    void shouldSuspendTheExistenceFilterWhileNotListeningForChanges() throws Exception {
+        existenceFilter.rebuild();
+        assertFalse(existenceFilter.mightExist("LOSTPLPWXXX"));
+
+        // the listening connection drops, so codes other instances create are not notified
+        jdbcTemplate.query("""
+                SELECT pg_terminate_backend(pid) FROM pg_stat_activity
+                WHERE application_name = 'swift-change-listener'
+                """, rs -> {
+        });
+        awaitTrue("the filter to be suspended", () -> existenceFilter.mightExist("LOSTPLPWXXX"));
+        jdbcTemplate.update("""
+                INSERT INTO swift_codes (swift_code, bank_name, address, countryiso2, country_name, is_headquarter)
+                VALUES ('LOSTPLPWXXX', 'Lost Bank', '1 Partition Street, WARSAW', 'PL', 'POLAND', true)
+                """);
+        // nor is any response conditional, as this instance cannot tell whether it is up to date
+        mockMvc.perform(get("/v1/swift-codes/LOSTPLPWXXX").header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        // listening again, the filter is rebuilt from the table
+        awaitTrue("the filter to be rebuilt", () -> !existenceFilter.mightExist("NOPEPLPWXXX"));
+        assertTrue(existenceFilter.mightExist("LOSTPLPWXXX"));
+        mockMvc.perform(get("/v1/swift-codes/LOSTPLPWXXX"))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void shouldOnlyMoveTheEtagOnOnceAChangeOfAnotherInstanceIsApplied() throws Exception {
+        mockMvc.perform(post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestJson("VERSPLPWXXX")))
+                .andExpect(status().isCreated());
+        String etag = mockMvc.perform(get("/v1/swift-codes/VERSPLPWXXX"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // another instance renames the bank and commits a new version; its notification is still on the way
+        long version = jdbcTemplate.queryForObject(
+                "UPDATE swift_dataset_version SET version = version + 1 WHERE id = 1 RETURNING version", Long.class);
+        jdbcTemplate.update("UPDATE swift_codes SET bank_name = 'Peer Bank' WHERE swift_code = 'VERSPLPWXXX'");
+        mockMvc.perform(get("/v1/swift-codes/VERSPLPWXXX"))
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(jsonPath("$.bankName").value("Race Bank"));
+
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {
+        }, "swift_codes_changed", """
+                {"node": "peer", "version": %d, "fullReload": false,
+                 "swiftCodes": ["VERSPLPWXXX"], "countries": ["PL"]}
+                """.formatted(version));
+
+        awaitTrue("the renamed bank to be served", () -> bankName("VERSPLPWXXX").equals("Peer Bank"));
+        mockMvc.perform(get("/v1/swift-codes/VERSPLPWXXX").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, containsString("-" + version + "\"")));
+    }
+
+    private String bankName(String swiftCode) {
+        try {
+            return JsonPath.read(mockMvc.perform(get("/v1/swift-codes/" + swiftCode))
+                    .andReturn().getResponse().getContentAsString(), "$.bankName");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitTrue(String description, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Timed out waiting for " + description);
+            }
+            Thread.sleep(50);
+        }
+    }
+
     @Test
     void shouldReturnBadRequestWhenCreatingSwiftCodeWithInvalidData() throws Exception {
         String invalidRequestBody = """
@@ -0,0 +1,107 @@
+import com.remitly.exercise.swiftCode.core.SwiftCodeEntity;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import com.remitly.exercise.swiftCode.features.CsvSwiftCodeFormat;
+import com.remitly.exercise.swiftCode.features.SnapshotSwiftCodeFormat;
+import com.remitly.exercise.swiftCode.features.SwiftCodeExporter;
+import com.remitly.exercise.swiftCode.features.SwiftCodeImporter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwiftCodeFormatsTest {
+
+    private static final List<SwiftCodeSummary> ROWS = List.of(
+            new SwiftCodeSummary("BANKPLPWXXX", "Bank \"Polski\", S.A.", "UL. PROSTA 1, WARSZAWA", "PL", "POLAND", true),
+            new SwiftCodeSummary("BANKPLPW001", "Bank \"Polski\", S.A.", "Line one\nLine two", "PL", "POLAND", false),
+            new SwiftCodeSummary("ZAZOLDEFXXX", "Zażółć Bank", null, "DE", "GERMANY", true),
+            new SwiftCodeSummary("ZAZOLDEF001", "Zażółć Bank", "Berlin", null, null, null));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void csvRoundTripsExportedRows() throws IOException {
+        List<SwiftCodeEntity> read = roundTrip(new CsvSwiftCodeFormat(), "codes.csv");
+
+        assertEquals(ROWS.stream().map(SwiftCodeSummary::swiftCode).toList(),
+                read.stream().map(SwiftCodeEntity::getSwiftCode).toList());
+        assertNull(read.get(3).getCountryISO2());
+        assertEquals("Bank \"Polski\", S.A.", read.get(0).getBankName());
+        assertEquals("Line one\nLine two", read.get(1).getAddress());
+        assertNull(read.get(2).getAddress());
+        assertTrue(read.get(0).getIsHeadquarter());
+        assertFalse(read.get(1).getIsHeadquarter());
+    }
+
+    @Test
+    void csvAppliesSpreadsheetRules() throws IOException {
+        Path file = tempDir.resolve("sheet.csv");
+        Files.writeString(file, "﻿COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\r\n"
+                + "pl,BANKPLPWXXX,BIC11, Bank ,\"ul. Prosta 1\",Warszawa,poland,Europe/Warsaw\r\n"
+                + "\r\n"
+                + "pl,,BIC11,No code,,,poland,\r\n"
+                + "pl,BANKPLPW001,BIC11,Branch", StandardCharsets.UTF_8);
+
+        List<SwiftCodeEntity> read = new ArrayList<>();
+        new CsvSwiftCodeFormat().read(file, read::add);
+
+        assertEquals(2, read.size());
+        assertEquals("PL", read.get(0).getCountryISO2());
+        assertEquals("POLAND", read.get(0).getCountryName());
+        assertEquals("Bank", read.get(0).getBankName());
+        assertEquals("ul. Prosta 1, Warszawa", read.get(0).getAddress());
+        assertEquals("Branch", read.get(1).getBankName());
+        assertNull(read.get(1).getCountryName());
+    }
+
+    @Test
+    void snapshotRoundTripsRowsSortedByCode() throws IOException {
+        List<SwiftCodeEntity> read = roundTrip(new SnapshotSwiftCodeFormat(), "codes.swft");
+
+        assertEquals(ROWS.stream().sorted(Comparator.comparing(SwiftCodeSummary::swiftCode)).toList(), read.stream().map(entity -> new SwiftCodeSummary(entity.getSwiftCode(),
+                entity.getBankName(), entity.getAddress(), entity.getCountryISO2(), entity.getCountryName(),
+                entity.getIsHeadquarter())).toList());
+    }
+
+    @Test
+    void snapshotExportFailsOnCodesItCannotStore() throws IOException {
+        SwiftCodeExporter.RowWriter writer = new SnapshotSwiftCodeFormat().open(OutputStream.nullOutputStream());
+        writer.write(ROWS.get(0));
+
+        IOException failure = assertThrows(IOException.class, () -> writer.write(
+                new SwiftCodeSummary("bank-pl", "Bank", null, "PL", "POLAND", true)));
+        assertTrue(failure.getMessage().contains("bank-pl"));
+    }
+
+    @Test
+    void snapshotRejectsOtherFiles() throws IOException {
+        Path file = tempDir.resolve("codes.swft");
+        Files.writeString(file, "COUNTRY ISO2 CODE,SWIFT CODE\n");
+
+        assertThrows(IOException.class, () -> new SnapshotSwiftCodeFormat().read(file, row -> { }));
+    }
+
+    private <F extends SwiftCodeImporter & SwiftCodeExporter> List<SwiftCodeEntity> roundTrip(F format, String name)
+            throws IOException {
+        Path file = tempDir.resolve(name);
+        try (OutputStream out = Files.newOutputStream(file);
+             SwiftCodeExporter.RowWriter writer = format.open(out)) {
+            for (SwiftCodeSummary row : ROWS) {
+                writer.write(row);
+            }
+        }
+        List<SwiftCodeEntity> read = new ArrayList<>();
+        format.read(file, read::add);
+        return read;
+    }
+}
@@ -0,0 +1,132 @@
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import com.remitly.exercise.swiftCode.features.SwiftCodeIndex;
+import com.remitly.exercise.swiftCode.features.SwiftCodeKeys;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwiftCodeIndexTest {
+
+    private static SwiftCodeIndex.Row row(String swiftCode, String country, String headquarter) {
+        return new SwiftCodeIndex.Row(swiftCode, "Bank " + swiftCode, "Address " + swiftCode,
+                country, "COUNTRY " + country, swiftCode.endsWith("XXX"), headquarter);
+    }
+
+    private static SwiftCodeIndex sampleIndex() {
+        return SwiftCodeIndex.builder()
+                .add(row("BANKPLPWXXX", "PL", null))
+                .add(row("BANKPLPW001", "PL", "BANKPLPWXXX"))
+                .add(row("BANKPLPW002", "PL", "BANKPLPWXXX"))
+                .add(row("OTHRDEFFXXX", "DE", null))
+                .add(row("ALONEPLAB12", "PL", null))
+                .build();
+    }
+
+    @Test
+    void packedKeysRoundTripAndPreserveOrder() {
+        assertEquals("BANKPLPWXXX", SwiftCodeKeys.unpack(SwiftCodeKeys.pack("BANKPLPWXXX")));
+        assertEquals("BANKPLPW", SwiftCodeKeys.unpack(SwiftCodeKeys.pack("BANKPLPW")));
+        assertTrue(SwiftCodeKeys.pack("BANKPLPW") < SwiftCodeKeys.pack("BANKPLPW001"));
+        assertTrue(SwiftCodeKeys.pack("BANKPLPW999") < SwiftCodeKeys.pack("BANKPLPWAAA"));
+        assertEquals(SwiftCodeKeys.INVALID, SwiftCodeKeys.pack("bankplpwxxx"));
+        assertEquals(SwiftCodeKeys.INVALID, SwiftCodeKeys.pack("BANKPLPWXXXX"));
+    }
+
+    @Test
+    void findsHeadquarterWithItsBranches() {
+        SwiftCodeDTO headquarter = sampleIndex().findDetailed("BANKPLPWXXX").orElseThrow();
+
+        assertTrue(headquarter.isHeadquarter());
+        assertEquals("Bank BANKPLPWXXX", headquarter.getBankName());
+        assertEquals(List.of("BANKPLPW001", "BANKPLPW002"),
+                headquarter.getBranches().stream().map(SwiftCodeDTO::getSwiftCode).toList());
+    }
+
+    @Test
+    void findsBranchWithoutBranches() {
+        SwiftCodeDTO branch = sampleIndex().findDetailed("BANKPLPW001").orElseThrow();
+
+        assertFalse(branch.isHeadquarter());
+        assertTrue(branch.getBranches().isEmpty());
+        assertTrue(sampleIndex().findDetailed("UNKNOWN").isEmpty());
+    }
+
+    @Test
+    void pagesCountryCodesInSwiftCodeOrder() {
+        SwiftCodeIndex index = sampleIndex();
+
+        assertEquals(List.of("ALONEPLAB12", "BANKPLPW001", "BANKPLPW002", "BANKPLPWXXX"),
+                index.findByCountry("PL").stream().map(SwiftCodeSummary::swiftCode).toList());
+        assertEquals(List.of("BANKPLPW002", "BANKPLPWXXX"),
+                index.findPageByCountry("PL", "BANKPLPW001", 10).stream().map(SwiftCodeSummary::swiftCode).toList());
+        assertEquals(List.of("ALONEPLAB12"),
+                index.findPageByCountry("PL", null, 1).stream().map(SwiftCodeSummary::swiftCode).toList());
+        assertFalse(index.containsCountry("US"));
+    }
+
+    @Test
+    void appliesChangesCopyOnWrite() {
+        SwiftCodeIndex before = sampleIndex();
+
+        SwiftCodeIndex after = before.withChanges(
+                Set.of("BANKPLPW001", "BANKPLPW003"),
+                List.of(row("BANKPLPW003", "PL", "BANKPLPWXXX")));
+
+        assertTrue(before.contains("BANKPLPW001"));
+        assertFalse(after.contains("BANKPLPW001"));
+        assertEquals(List.of("BANKPLPW002", "BANKPLPW003"),
+                after.findDetailed("BANKPLPWXXX").orElseThrow().getBranches().stream()
+                        .map(SwiftCodeDTO::getSwiftCode).toList());
+    }
+
+    @Test
+    void answersLikeAFreshBuildAfterManyIncrementalChanges() {
+        Random random = new Random(42);
+        String[] countries = {"PL", "DE", "FR"};
+        Map<String, SwiftCodeIndex.Row> expected = new TreeMap<>();
+        SwiftCodeIndex index = SwiftCodeIndex.EMPTY;
+        for (int round = 0; round < 300; round++) {
+            Set<String> changed = new HashSet<>();
+            List<SwiftCodeIndex.Row> current = new ArrayList<>();
+            for (int i = random.nextInt(4); i >= 0; i--) {
+                String prefix = "B" + (char) ('A' + random.nextInt(4)) + "NKPLPW";
+                String code = prefix + (random.nextInt(3) == 0 ? "XXX" : "00" + random.nextInt(5));
+                boolean headquarter = code.endsWith("XXX");
+                changed.add(code);
+                // like the database, a branch only links to a headquarter that exists, and those are not deleted
+                if (!headquarter && random.nextInt(4) == 0) {
+                    expected.remove(code);
+                } else {
+                    SwiftCodeIndex.Row row = new SwiftCodeIndex.Row(code, "Bank " + random.nextInt(3),
+                            "Address " + round, countries[random.nextInt(countries.length)], "COUNTRY", headquarter,
+                            !headquarter && expected.containsKey(prefix + "XXX") ? prefix + "XXX" : null);
+                    expected.put(code, row);
+                    current.removeIf(existing -> existing.swiftCode().equals(code));
+                    current.add(row);
+                }
+            }
+            index = index.withChanges(changed, current);
+        }
+
+        SwiftCodeIndex.Builder builder = SwiftCodeIndex.builder();
+        expected.values().forEach(builder::add);
+        SwiftCodeIndex rebuilt = builder.build();
+        assertTrue(rebuilt.size() > 10);
+        assertEquals(rebuilt.size(), index.size());
+        for (String code : expected.keySet()) {
+            assertEquals(rebuilt.findDetailed(code), index.findDetailed(code), code);
+        }
+        for (String country : List.of("PL", "DE", "FR")) {
+            assertEquals(rebuilt.findByCountry(country), index.findByCountry(country), country);
+        }
+    }
+}
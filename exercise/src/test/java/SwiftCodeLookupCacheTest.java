@@ -0,0 +1,51 @@
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodesChangedEvent;
+import com.remitly.exercise.swiftCode.features.SwiftCodeLookupCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwiftCodeLookupCacheTest {
+
+    private final SwiftCodeLookupCache cache =
+            new SwiftCodeLookupCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    private static SwiftCodeDTO dto(String swiftCode, String bankName) {
+        return SwiftCodeDTO.builder().swiftCode(swiftCode).bankName(bankName).build();
+    }
+
+    @Test
+    void batchLoadRacingACommitDoesNotCacheThePreCommitView() {
+        Map<String, SwiftCodeDTO> loaded = cache.getAll(List.of("BANKPLPWXXX"), missing -> {
+            // the rows were read, then a write to them committed before the load returned
+            Map<String, SwiftCodeDTO> stale = Map.of("BANKPLPWXXX", dto("BANKPLPWXXX", "Old Name"));
+            cache.onSwiftCodesChanged(SwiftCodesChangedEvent.of(Set.of("BANKPLPWXXX"), Set.of("PL")));
+            return stale;
+        });
+
+        assertEquals("Old Name", loaded.get("BANKPLPWXXX").getBankName());
+        Optional<SwiftCodeDTO> next = cache.get("BANKPLPWXXX", code -> dto(code, "New Name"));
+        assertEquals("New Name", next.orElseThrow().getBankName());
+    }
+
+    @Test
+    void batchLookupServesCachedEntriesAndLoadsOnlyTheRest() {
+        cache.get("BANKPLPWXXX", code -> dto(code, "Cached"));
+
+        Map<String, SwiftCodeDTO> found = cache.getAll(List.of("BANKPLPWXXX", "BANKPLPW001", "NONEPLPWXXX"),
+                missing -> {
+                    assertEquals(Set.of("BANKPLPW001", "NONEPLPWXXX"), missing);
+                    return Map.of("BANKPLPW001", dto("BANKPLPW001", "Loaded"));
+                });
+
+        assertEquals(Set.of("BANKPLPWXXX", "BANKPLPW001"), found.keySet());
+        assertEquals("Cached", found.get("BANKPLPWXXX").getBankName());
+    }
+}
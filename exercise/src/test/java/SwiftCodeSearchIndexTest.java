@@ -0,0 +1,125 @@
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import com.remitly.exercise.swiftCode.features.SwiftCodeSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwiftCodeSearchIndexTest {
+
+    private static SwiftCodeSummary row(String swiftCode, String bankName, String address) {
+        return new SwiftCodeSummary(swiftCode, bankName, address, "PL", "POLAND", swiftCode.endsWith("XXX"));
+    }
+
+    private static SwiftCodeSearchIndex sampleIndex() {
+        return SwiftCodeSearchIndex.build(List.of(
+                row("BPKOPLPWXXX", "PKO BANK POLSKI S.A.", "PULAWSKA 15, WARSZAWA"),
+                row("BPKOPLPWWAW", "PKO BANK POLSKI S.A.", "PULAWSKA 15, WARSZAWA"),
+                row("BREXPLPWMBK", "MBANK S.A. (FORMERLY BRE BANK S.A.)", "PROSTA 18, WARSZAWA"),
+                row("ALBPPLPWXXX", "ALIOR BANK SPOLKA AKCYJNA", "LOPUSZANSKA 38D, KRAKÓW"),
+                row("DEUTDEFFXXX", "Deutsche Bank AG", "TAUNUSANLAGE 12, FRANKFURT AM MAIN")));
+    }
+
+    private static List<String> codes(List<SwiftCodeSummary> results) {
+        return results.stream().map(SwiftCodeSummary::swiftCode).toList();
+    }
+
+    @Test
+    void matchesSwiftCodePrefixesCaseInsensitively() {
+        SwiftCodeSearchIndex index = sampleIndex();
+
+        assertEquals(List.of("BPKOPLPWWAW", "BPKOPLPWXXX"), codes(index.search("bpko plpw", 10, 0)));
+        assertEquals(List.of("BPKOPLPWXXX"), codes(index.search("BPKOPLPWXXX", 10, 0)));
+        assertTrue(index.search("ZZZZ", 10, 2).isEmpty());
+    }
+
+    @Test
+    void requiresEveryWordAndTreatsTheLastAsAPrefix() {
+        SwiftCodeSearchIndex index = sampleIndex();
+
+        assertEquals(List.of("BPKOPLPWWAW", "BPKOPLPWXXX"), codes(index.search("pko pols", 10, 0)));
+        assertEquals(List.of("DEUTDEFFXXX"), codes(index.search("deutsche frank", 10, 0)));
+        assertEquals(List.of("ALBPPLPWXXX"), codes(index.search("Krakow", 10, 0)));
+        assertTrue(index.search("pko frankfurt", 10, 0).isEmpty());
+    }
+
+    @Test
+    void allowsBoundedEditsDependingOnWordLength() {
+        SwiftCodeSearchIndex index = sampleIndex();
+
+        assertEquals(List.of("DEUTDEFFXXX"), codes(index.search("duetsche", 10, 2)));
+        assertEquals(List.of("ALBPPLPWXXX"), codes(index.search("alier", 10, 2)));
+        assertTrue(index.search("alier", 10, 0).isEmpty());
+        assertTrue(index.search("dutsxhe", 10, 1).isEmpty());
+        assertTrue(index.search("plk", 10, 2).isEmpty(), "No edits below four characters");
+        assertEquals(Set.of("BPKOPLPWXXX", "BPKOPLPWWAW"), Set.copyOf(codes(index.search("BPKOPLPV", 10, 2))));
+    }
+
+    @Test
+    void ranksExactAbovePrefixAboveFuzzyAndHonoursTheLimit() {
+        SwiftCodeSearchIndex index = SwiftCodeSearchIndex.build(List.of(
+                row("AAAAPLPWXXX", "BANKOWY DOM", "X, LODZ"),
+                row("BBBBPLPWXXX", "BANK", "X, LODZ"),
+                row("CCCCPLPWXXX", "BANQ", "X, LODZ")));
+
+        assertEquals(List.of("BBBBPLPWXXX", "AAAAPLPWXXX", "CCCCPLPWXXX"), codes(index.search("bank", 10, 1)));
+        assertEquals(List.of("BBBBPLPWXXX"), codes(index.search("bank", 1, 1)));
+    }
+
+    @Test
+    void replacesAndRemovesChangedCodes() {
+        SwiftCodeSearchIndex index = sampleIndex().withChanges(
+                Set.of("BPKOPLPWWAW", "DEUTDEFFXXX"),
+                List.of(row("BPKOPLPWWAW", "PKO BANK POLSKI ODDZIAL", "MARSZALKOWSKA 1, GDANSK")));
+
+        assertEquals(4, index.size());
+        assertEquals(List.of("BPKOPLPWWAW"), codes(index.search("gdansk", 10, 0)));
+        assertTrue(index.search("deutsche", 10, 0).isEmpty());
+    }
+
+    @Test
+    void answersLikeAFreshBuildAfterManyIncrementalChanges() {
+        Random random = new Random(42);
+        String[] bankWords = {"bank", "banque", "polski", "polska", "credit", "kredyt", "spolka", "handlowy", "mbank"};
+        String[] towns = {"WARSZAWA", "KRAKÓW", "GDANSK", "LODZ", "POZNAN"};
+        Map<String, SwiftCodeSummary> expected = new TreeMap<>();
+        SwiftCodeSearchIndex index = SwiftCodeSearchIndex.EMPTY;
+        for (int round = 0; round < 200; round++) {
+            Set<String> changed = new HashSet<>();
+            List<SwiftCodeSummary> current = new ArrayList<>();
+            for (int i = random.nextInt(4); i >= 0; i--) {
+                String code = "B" + (char) ('A' + random.nextInt(6)) + "PLPW" + random.nextInt(10) + "0X"
+                        + (random.nextBoolean() ? "XX" : "");
+                changed.add(code);
+                if (random.nextInt(4) == 0) {
+                    expected.remove(code);
+                } else {
+                    SwiftCodeSummary summary = row(code, bankWords[random.nextInt(bankWords.length)] + " "
+                            + bankWords[random.nextInt(bankWords.length)], "UL. 1, " + towns[random.nextInt(towns.length)]);
+                    expected.put(code, summary);
+                    current.removeIf(existing -> existing.swiftCode().equals(code));
+                    current.add(summary);
+                }
+            }
+            index = index.withChanges(changed, current);
+        }
+
+        SwiftCodeSearchIndex rebuilt = SwiftCodeSearchIndex.build(expected.values());
+        assertTrue(rebuilt.size() > 30);
+        assertEquals(rebuilt.size(), index.size());
+        for (String query : List.of("bank", "ban", "polsk", "plska", "kredit", "handlowy mbank", "krakow", "gdansk b",
+                "BA", "BCPLPW", "BCPLPW10", "BCPLPV30XXX", "spolka lodz")) {
+            for (int edits = 0; edits <= 2; edits++) {
+                assertEquals(codes(rebuilt.search(query, 1000, edits)), codes(index.search(query, 1000, edits)),
+                        query + " with " + edits + " edits");
+            }
+        }
+    }
+}
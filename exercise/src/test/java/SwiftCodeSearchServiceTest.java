@@ -0,0 +1,78 @@
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import com.remitly.exercise.swiftCode.core.SwiftCodesChangedEvent;
+import com.remitly.exercise.swiftCode.features.SnapshotSwiftCodeReadStore;
+import com.remitly.exercise.swiftCode.features.SwiftCodeMapper;
+import com.remitly.exercise.swiftCode.features.SwiftCodeReadStore;
+import com.remitly.exercise.swiftCode.features.SwiftCodeSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+public class SwiftCodeSearchServiceTest {
+
+    private static final SwiftCodeSummary PKO =
+            new SwiftCodeSummary("BPKOPLPWXXX", "PKO BANK POLSKI", "PULAWSKA 15, WARSZAWA", "PL", "POLAND", true);
+
+    private static final SwiftCodeSummary PEKAO =
+            new SwiftCodeSummary("PKOPPLPWXXX", "BANK PEKAO", "GRZYBOWSKA 53, WARSZAWA", "PL", "POLAND", true);
+
+    @Mock
+    private SwiftCodeReadStore readStore;
+
+    @Mock
+    private ObjectProvider<SnapshotSwiftCodeReadStore> snapshotStore;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        doAnswer(invocation -> {
+            invocation.<Consumer<SwiftCodeSummary>>getArgument(0).accept(PKO);
+            return null;
+        }).when(readStore).forEach(any());
+        when(readStore.findAll(any(), anyBoolean()))
+                .thenReturn(Map.of(PEKAO.swiftCode(), SwiftCodeMapper.toBasicDTO(PEKAO)));
+    }
+
+    private static List<String> codes(List<SwiftCodeSummary> summaries) {
+        return summaries.stream().map(SwiftCodeSummary::swiftCode).toList();
+    }
+
+    @Test
+    void indexesWhatTheReadStoreServes() {
+        SwiftCodeSearchService service = new SwiftCodeSearchService(readStore, snapshotStore, 2);
+        service.onApplicationReady();
+        assertEquals(List.of("BPKOPLPWXXX"), codes(service.search("polski", 10, false)));
+
+        service.onSwiftCodesChanged(SwiftCodesChangedEvent.of(Set.of("PKOPPLPWXXX"), Set.of("PL")));
+
+        verify(readStore).findAll(Set.of("PKOPPLPWXXX"), false);
+        assertEquals(List.of("PKOPPLPWXXX"), codes(service.search("pekao", 10, false)));
+        assertEquals(2, service.size());
+    }
+
+    @Test
+    void followsTheSnapshotSwapsInsteadOfTheCommits() {
+        when(snapshotStore.getIfAvailable()).thenReturn(mock(SnapshotSwiftCodeReadStore.class));
+        SwiftCodeSearchService service = new SwiftCodeSearchService(readStore, snapshotStore, 2);
+        service.onApplicationReady();
+
+        service.onSwiftCodesChanged(SwiftCodesChangedEvent.of(Set.of("PKOPPLPWXXX"), Set.of("PL")));
+        assertTrue(service.search("pekao", 10, false).isEmpty());
+
+        service.onSnapshotSwapped(new SnapshotSwiftCodeReadStore.Swapped(Set.of("PKOPPLPWXXX"), Set.of("PL"), false));
+        assertEquals(List.of("PKOPPLPWXXX"), codes(service.search("pekao", 10, false)));
+    }
+}
@@ -0,0 +1,91 @@
+import com.remitly.exercise.swiftCode.core.SwiftCodeDTO;
+import com.remitly.exercise.swiftCode.core.SwiftCodeSummary;
+import com.remitly.exercise.swiftCode.features.SnapshotSwiftCodeFormat;
+import com.remitly.exercise.swiftCode.features.SwiftCodeExporter;
+import com.remitly.exercise.swiftCode.features.SwiftCodeSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwiftCodeSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static SwiftCodeSummary row(String swiftCode, String country) {
+        return new SwiftCodeSummary(swiftCode, "Bank " + swiftCode, "Address " + swiftCode,
+                country, "COUNTRY " + country, swiftCode.endsWith("XXX"));
+    }
+
+    private SwiftCodeSnapshot sampleSnapshot() throws IOException {
+        Path file = tempDir.resolve("sample.swft");
+        try (OutputStream out = Files.newOutputStream(file);
+             SwiftCodeExporter.RowWriter writer = new SnapshotSwiftCodeFormat().open(out)) {
+            writer.write(row("OTHRDEFFXXX", "DE"));
+            writer.write(row("BANKPLPW002", "PL"));
+            writer.write(row("BANKPLPWXXX", "PL"));
+            writer.write(row("ALONEPLAB12", "PL"));
+            writer.write(row("BANKPLPW001", "PL"));
+        }
+        return SwiftCodeSnapshot.open(file);
+    }
+
+    @Test
+    void findsHeadquarterWithItsBranches() throws IOException {
+        SwiftCodeSnapshot snapshot = sampleSnapshot();
+        SwiftCodeDTO headquarter = snapshot.findDetailed("BANKPLPWXXX").orElseThrow();
+
+        assertEquals(5, snapshot.size());
+        assertTrue(headquarter.isHeadquarter());
+        assertEquals("Bank BANKPLPWXXX", headquarter.getBankName());
+        assertEquals("COUNTRY PL", headquarter.getCountryName());
+        assertEquals(List.of("BANKPLPW001", "BANKPLPW002"),
+                headquarter.getBranches().stream().map(SwiftCodeDTO::getSwiftCode).toList());
+    }
+
+    @Test
+    void findsBranchAndMissesUnknownCodes() throws IOException {
+        SwiftCodeSnapshot snapshot = sampleSnapshot();
+
+        SwiftCodeDTO branch = snapshot.findDetailed("BANKPLPW001").orElseThrow();
+        assertFalse(branch.isHeadquarter());
+        assertTrue(branch.getBranches().isEmpty());
+        assertTrue(snapshot.findDetailed("BANKPLPW003").isEmpty());
+        assertTrue(snapshot.findDetailed("ZZZZZZZZZZZ").isEmpty());
+        assertTrue(snapshot.findDetailed("bad code").isEmpty());
+    }
+
+    @Test
+    void pagesCountryCodesInSwiftCodeOrder() throws IOException {
+        SwiftCodeSnapshot snapshot = sampleSnapshot();
+
+        assertEquals(List.of("ALONEPLAB12", "BANKPLPW001", "BANKPLPW002", "BANKPLPWXXX"),
+                snapshot.findByCountry("PL").stream().map(SwiftCodeSummary::swiftCode).toList());
+        assertEquals(List.of("BANKPLPW002", "BANKPLPWXXX"),
+                snapshot.findPageByCountry("PL", "BANKPLPW001", 10).stream().map(SwiftCodeSummary::swiftCode).toList());
+        assertEquals(List.of("ALONEPLAB12"),
+                snapshot.findPageByCountry("PL", null, 1).stream().map(SwiftCodeSummary::swiftCode).toList());
+        assertEquals(List.of("OTHRDEFFXXX"),
+                snapshot.findByCountry("DE").stream().map(SwiftCodeSummary::swiftCode).toList());
+        assertFalse(snapshot.containsCountry("US"));
+    }
+
+    @Test
+    void keepsServingAMappingAfterTheFileIsReplaced() throws IOException {
+        SwiftCodeSnapshot snapshot = sampleSnapshot();
+
+        Path replacement = Files.writeString(tempDir.resolve("replacement.tmp"), "replaced");
+        Files.move(replacement, tempDir.resolve("sample.swft"), StandardCopyOption.REPLACE_EXISTING);
+
+        assertTrue(snapshot.contains("OTHRDEFFXXX"));
+        assertThrows(IOException.class, () -> SwiftCodeSnapshot.open(tempDir.resolve("sample.swft")));
+    }
+}
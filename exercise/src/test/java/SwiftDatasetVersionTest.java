@@ -0,0 +1,86 @@
+import com.remitly.exercise.swiftCode.core.SwiftCodesChangedEvent;
+import com.remitly.exercise.swiftCode.features.SnapshotSwiftCodeReadStore;
+import com.remitly.exercise.swiftCode.features.SwiftCodeChangeBridge;
+import com.remitly.exercise.swiftCode.features.SwiftDatasetVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+public class SwiftDatasetVersionTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ObjectProvider<SnapshotSwiftCodeReadStore> snapshotStore;
+
+    private SwiftDatasetVersion datasetVersion;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT dataset_id"), eq(String.class)))
+                .thenReturn("3f2a9c1e-0000-4000-8000-000000000000");
+        datasetVersion = new SwiftDatasetVersion(jdbcTemplate, true, snapshotStore);
+    }
+
+    private static SwiftCodesChangedEvent remote(long version) {
+        return SwiftCodesChangedEvent.remote(Set.of("BANKPLPWXXX"), Set.of("PL"), false, version);
+    }
+
+    @Test
+    void noEtagUntilTheBridgeListensAndAfterItStops() {
+        assertNull(datasetVersion.etag());
+
+        datasetVersion.onSwiftCodesChanged(SwiftCodesChangedEvent.remote(Set.of(), Set.of(), true, 3));
+        datasetVersion.onListeningChanged(new SwiftCodeChangeBridge.ListeningChanged(true));
+        assertEquals("\"3f2a9c1e-3\"", datasetVersion.etag());
+
+        datasetVersion.onListeningChanged(new SwiftCodeChangeBridge.ListeningChanged(false));
+        assertNull(datasetVersion.etag());
+    }
+
+    @Test
+    void localChangeWaitsForAnEarlierRemoteOne() {
+        datasetVersion.onSwiftCodesChanged(SwiftCodesChangedEvent.remote(Set.of(), Set.of(), true, 3));
+        datasetVersion.onListeningChanged(new SwiftCodeChangeBridge.ListeningChanged(true));
+
+        // version 4 committed elsewhere, then 5 here; the notification of 4 arrives last
+        when(jdbcTemplate.queryForObject(startsWith("UPDATE"), eq(Long.class))).thenReturn(5L);
+        SwiftCodesChangedEvent local = SwiftCodesChangedEvent.of(Set.of("BANKPLPW001"), Set.of("PL"));
+        datasetVersion.beforeCommit(local);
+        datasetVersion.onSwiftCodesChanged(local);
+        assertEquals("\"3f2a9c1e-3\"", datasetVersion.etag());
+
+        datasetVersion.onSwiftCodesChanged(remote(4));
+        assertEquals("\"3f2a9c1e-5\"", datasetVersion.etag());
+
+        // relayed again after a reconnect, already applied
+        datasetVersion.onSwiftCodesChanged(remote(4));
+        assertEquals("\"3f2a9c1e-5\"", datasetVersion.etag());
+    }
+
+    @Test
+    void rolledBackChangeDoesNotMoveTheVersion() {
+        datasetVersion.onSwiftCodesChanged(SwiftCodesChangedEvent.remote(Set.of(), Set.of(), true, 3));
+        datasetVersion.onListeningChanged(new SwiftCodeChangeBridge.ListeningChanged(true));
+
+        when(jdbcTemplate.queryForObject(startsWith("UPDATE"), eq(Long.class))).thenReturn(4L);
+        SwiftCodesChangedEvent local = SwiftCodesChangedEvent.of(Set.of("BANKPLPW001"), Set.of("PL"));
+        datasetVersion.beforeCommit(local);
+        datasetVersion.onRollback(local);
+        datasetVersion.onSwiftCodesChanged(remote(4));
+
+        assertEquals("\"3f2a9c1e-4\"", datasetVersion.etag());
+    }
+}